@@ -68,6 +68,78 @@ public class IConstants {
    /** Smoke Constant **/
    public static final String DEFAULT_TAG_VALUE = "Smoke";
 
+   // Driver lifecycle Ones
+   /** driverPool Constant **/
+   public static final String DRIVER_POOL = "driverPool";
+   /** driverPoolSize Constant **/
+   public static final String DRIVER_POOL_SIZE = "driverPoolSize";
+   /** driverPoolMaxUses Constant **/
+   public static final String DRIVER_POOL_MAX_USES = "driverPoolMaxUses";
+   /** driverStandbyDepth Constant **/
+   public static final String DRIVER_STANDBY_DEPTH = "driverStandbyDepth";
+   /** sessionHealthCheckTtlSeconds Constant **/
+   public static final String SESSION_HEALTH_CHECK_TTL_SECONDS = "sessionHealthCheckTtlSeconds";
+   /** gridUrls Constant **/
+   public static final String GRID_URLS = "gridUrls";
+   /** driverCacheDir Constant **/
+   public static final String DRIVER_CACHE_DIR = "driverCacheDir";
+   /** networkProfile Constant **/
+   public static final String NETWORK_PROFILE = "networkProfile";
+   /** networkBlockedHosts Constant **/
+   public static final String NETWORK_BLOCKED_HOSTS = "networkBlockedHosts";
+   /** chromeProfileTemplate Constant **/
+   public static final String CHROME_PROFILE_TEMPLATE = "chromeProfileTemplate";
+   /** chromeProfileWarmUrl Constant **/
+   public static final String CHROME_PROFILE_WARM_URL = "chromeProfileWarmUrl";
+   /** multiContext Constant **/
+   public static final String MULTI_CONTEXT = "multiContext";
+   /** driverScope Constant **/
+   public static final String DRIVER_SCOPE = "driverScope";
+   /** browserMemoryBudgetMb Constant **/
+   public static final String BROWSER_MEMORY_BUDGET_MB = "browserMemoryBudgetMb";
+   /** memoryWatchdogIntervalSeconds Constant **/
+   public static final String MEMORY_WATCHDOG_INTERVAL_SECONDS = "memoryWatchdogIntervalSeconds";
+
+   // Wait Ones
+   /** waitTimeoutSeconds Constant **/
+   public static final String WAIT_TIMEOUT_SECONDS = "waitTimeoutSeconds";
+   /** waitMediumTimeoutSeconds Constant **/
+   public static final String WAIT_MEDIUM_TIMEOUT_SECONDS = "waitMediumTimeoutSeconds";
+   /** waitShortTimeoutSeconds Constant **/
+   public static final String WAIT_SHORT_TIMEOUT_SECONDS = "waitShortTimeoutSeconds";
+   /** waitProbeTimeoutMillis Constant **/
+   public static final String WAIT_PROBE_TIMEOUT_MILLIS = "waitProbeTimeoutMillis";
+   /** waitPollInitialMillis Constant **/
+   public static final String WAIT_POLL_INITIAL_MILLIS = "waitPollInitialMillis";
+   /** waitPollMaxMillis Constant **/
+   public static final String WAIT_POLL_MAX_MILLIS = "waitPollMaxMillis";
+   /** networkIdleMillis Constant **/
+   public static final String NETWORK_IDLE_MILLIS = "networkIdleMillis";
+   /** appBusySelector Constant **/
+   public static final String APP_BUSY_SELECTOR = "appBusySelector";
+   /** retryMaxAttempts Constant **/
+   public static final String RETRY_MAX_ATTEMPTS = "retryMaxAttempts";
+   /** retryBackoffMillis Constant **/
+   public static final String RETRY_BACKOFF_MILLIS = "retryBackoffMillis";
+   /** retryBudgetPerScenario Constant **/
+   public static final String RETRY_BUDGET_PER_SCENARIO = "retryBudgetPerScenario";
+
+   // Screenshot Ones
+   /** screenshotFormat Constant **/
+   public static final String SCREENSHOT_FORMAT = "screenshotFormat";
+   /** screenshotQuality Constant **/
+   public static final String SCREENSHOT_QUALITY = "screenshotQuality";
+   /** screenshotMaxHeight Constant **/
+   public static final String SCREENSHOT_MAX_HEIGHT = "screenshotMaxHeight";
+   /** screenshotWorkers Constant **/
+   public static final String SCREENSHOT_WORKERS = "screenshotWorkers";
+   /** screenshotQueueSize Constant **/
+   public static final String SCREENSHOT_QUEUE_SIZE = "screenshotQueueSize";
+   /** screenshotPolicy Constant **/
+   public static final String SCREENSHOT_POLICY = "screenshotPolicy";
+   /** screenshotEveryNth Constant **/
+   public static final String SCREENSHOT_EVERY_NTH = "screenshotEveryNth";
+
    // True / False Ones
    /** TRUE Constant **/
    public static final String TRUE = "TRUE";
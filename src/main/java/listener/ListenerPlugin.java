@@ -2,19 +2,18 @@ package listener;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Supplier;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.OutputType;
-import org.openqa.selenium.firefox.FirefoxDriver;
 import org.openqa.selenium.remote.RemoteWebDriver;
 
 import com.aventstack.extentreports.ExtentTest;
-import com.aventstack.extentreports.MediaEntityBuilder;
 import com.aventstack.extentreports.cucumber.adapter.ExtentCucumberAdapter;
+import com.aventstack.extentreports.markuputils.MarkupHelper;
 import com.aventstack.extentreports.service.ExtentService;
 
-import constants.IConstants;
 import io.cucumber.plugin.ConcurrentEventListener;
 import io.cucumber.plugin.event.*;
 import pages.BasePageClass;
@@ -90,8 +89,12 @@ public class ListenerPlugin implements ConcurrentEventListener, io.cucumber.plug
          currentTest.info("Test node created");
       }
 
+      DriverScope.beforeScenario(rawFeatureName, testCaseTags.get());
       if (testCaseTags.get().contains("@Web")) {
-         DriverManager.getCurrentDriver();
+         NetworkShaper.startScenario(DriverManager.getCurrentDriver(), testCaseTags.get());
+         if (currentTest != null && BrowserSlotScheduler.getLastWaitMillis() > 0) {
+            currentTest.info("⏳ Waited " + BrowserSlotScheduler.getLastWaitMillis() + " ms for a browser slot");
+         }
       }
 
       TestLoggerHolder.getLogger().info("Reset any variables before the test runs");
@@ -122,8 +125,24 @@ public class ListenerPlugin implements ConcurrentEventListener, io.cucumber.plug
       default -> testReport.skip(testName, "Undefined Step", getFeatureName());
       }
 
-      if (DriverManager.getCurrentDriver() != null && testCaseTags.get().contains("@Web")) {
-         DriverManager.closeDriver();
+      // Thread state, reset even if the browser was lost part way through the scenario
+      String retrySummary = RetryPolicy.finishScenario();
+      if (retrySummary != null && TestReport.getCurrentTest() != null) {
+         TestReport.getCurrentTest().info(retrySummary);
+      }
+      String cacheSummary = ElementCache.finishScenario();
+      if (cacheSummary != null && TestReport.getCurrentTest() != null) {
+         TestReport.getCurrentTest().info(cacheSummary);
+      }
+      if (testCaseTags.get().contains("@Web")) {
+         ScreenshotPolicy.finishScenario(TestReport.getCurrentTest());
+      }
+      if (DriverManager.hasDriver() && testCaseTags.get().contains("@Web")) {
+         String networkSummary = NetworkShaper.finishScenario(DriverManager.getCurrentDriver());
+         if (networkSummary != null && TestReport.getCurrentTest() != null) {
+            TestReport.getCurrentTest().info(networkSummary);
+         }
+         DriverScope.afterScenario(testCaseTags.get());
       }
 
       TestReport.linkLogToReport();
@@ -144,6 +163,7 @@ public class ListenerPlugin implements ConcurrentEventListener, io.cucumber.plug
       if (event.getTestStep() instanceof PickleStepTestStep step) {
          setStepKeyword(step.getStep().getKeyword());
          setStepName(step.getStep().getText());
+         SessionHealthTracker.startStep(DriverManager.peekDriver());
          TestLoggerHolder.getLogger().info("{} {}", "🟢 Step: ", stepKeyword + stepName);
       }
    };
@@ -160,11 +180,18 @@ public class ListenerPlugin implements ConcurrentEventListener, io.cucumber.plug
 
          if (event.getResult().getError() != null) {
             TestLoggerHolder.getLogger().error("❌ Error: " + event.getResult().getError());
+            if (event.getTestCase().getTags().contains("@Web")) {
+               // Have the next driver lookup check the session is still alive
+               DriverManager.markSessionSuspect();
+            }
          }
 
-         if (event.getTestCase().getTags().contains("@Web")) {
+         // The step's own commands, not its screenshot
+         SessionHealthTracker.finishStep(DriverManager.peekDriver());
+         boolean failed = event.getResult().getError() != null;
+         if (event.getTestCase().getTags().contains("@Web") && ScreenshotPolicy.shouldCapture(failed)) {
             ExtentCucumberAdapter.getCurrentStep().info("📸 Screenshot:");
-            addScreenShot();
+            addScreenShot(() -> ScreenshotPolicy.check(failed));
          }
       }
    };
@@ -176,6 +203,20 @@ public class ListenerPlugin implements ConcurrentEventListener, io.cucumber.plug
     */
    public void onTestRunFinished(TestRunFinished event) {
       TestReport.closeThreadLocalCollections();
+      DriverManager.quitAllDrivers();
+      TestLoggerHolder.getLogger().info(ScreenshotPipeline.shutdown());
+      TestLoggerHolder.getLogger().info(LocatorRegistry.getSummary());
+      TestLoggerHolder.getLogger().info(ElementCache.getSummary());
+      TestLoggerHolder.getLogger().info(RetryPolicy.getSummary());
+      TestLoggerHolder.getLogger().info(PageScreenshot.getSummary());
+      TestLoggerHolder.getLogger().info(ScreenshotPolicy.getSummary());
+      String locatorReport = LocatorTimings.writeReport(TestReport.getLatestExtentReportFolder());
+      if (locatorReport != null) {
+         // The run's log view, so the report's test counts are not changed
+         ExtentService.getInstance().addTestRunnerOutput(MarkupHelper.createCodeBlock(locatorReport).getMarkup());
+      }
+      // Includes the screenshots the writers attached after the report was last flushed
+      ExtentService.getInstance().flush();
 
       TestLoggerHolder.getLogger().info(LINE_BREAK);
       TestLoggerHolder.getLogger().info(LINE_BREAK);
@@ -187,7 +228,8 @@ public class ListenerPlugin implements ConcurrentEventListener, io.cucumber.plug
    }
 
    /**
-    * Captures and attaches a screenshot with descriptive text.
+    * Captures and attaches a screenshot with descriptive text. The screenshot
+    * policy does not apply to these.
     *
     * @param text  description to log in the report
     * @param frame optional frame reference (currently unused)
@@ -195,13 +237,13 @@ public class ListenerPlugin implements ConcurrentEventListener, io.cucumber.plug
    public static void addScreenshotToReport(String text, String frame) {
       ExtentCucumberAdapter.getCurrentStep().info(text);
       if (!StringUtils.isBlank(frame)) {
-         scrollAndShot(); // takes scrolling screenshots for frames
+         scrollAndShot(() -> null); // takes scrolling screenshots for frames
       } else {
-         addScreenShot(); // single screen
+         addScreenShot(() -> null); // single screen
       }
    }
 
-   private static void scrollAndShot() {
+   private static void scrollAndShot(Supplier<ScreenshotPolicy.Check> check) {
       RemoteWebDriver driver = DriverManager.getCurrentDriver();
       BasePageClass bpc = new BasePageClass();
 
@@ -212,31 +254,32 @@ public class ListenerPlugin implements ConcurrentEventListener, io.cucumber.plug
 
       do {
          shot++;
-         ExtentCucumberAdapter.getCurrentStep().info(MediaEntityBuilder
-               .createScreenCaptureFromBase64String(driver.getScreenshotAs(OutputType.BASE64)).build());
+         submitScreenshot(driver.getScreenshotAs(OutputType.BYTES), check);
          bpc.jsWindowScrollBy(windowHeight);
       } while (bodyHeight > shot * windowHeight);
    }
 
    /**
-    * This method takes a screenshot. If the browser is firefox then it
-    * automatically takes a screen shot of the whole window. For other browsers
-    * this is not possible so you have to iterate down large windows taking
-    * separate screenshots. Note: This is not the whole of an embedded frame (with
+    * This method takes a screenshot, which is written to the report in the
+    * background, see {@link ScreenshotPipeline}. Chrome, Edge and Firefox take a
+    * screenshot of the whole page in one go, see {@link PageScreenshot}. For
+    * other browsers this is not possible so you have to iterate down large
+    * windows taking separate screenshots. Note: This is not the whole of an embedded frame (with
     * a scroll bar) hence the conditional block
+    *
+    * @param check the screenshot policy check of each screenshot taken, see
+    *              {@link ScreenshotPolicy}, or null for none
     */
-   private static void addScreenShot() {
+   private static void addScreenShot(Supplier<ScreenshotPolicy.Check> check) {
       RemoteWebDriver driver = DriverManager.getCurrentDriver();
       if (driver != null) {
          try {
-            if (BaseTestConfiguration.getBrowser().equals(IConstants.FIREFOX)) {
-               ExtentCucumberAdapter.getCurrentStep()
-                     .info(MediaEntityBuilder
-                           .createScreenCaptureFromBase64String(
-                                 ((FirefoxDriver) driver).getFullPageScreenshotAs(OutputType.BASE64))
-                           .build());
+            // Remote (grid) sessions are augmented rather than a ChromeDriver/FirefoxDriver
+            byte[] fullPage = PageScreenshot.capture(driver);
+            if (fullPage != null) {
+               submitScreenshot(fullPage, check);
             } else {
-               scrollAndShot();
+               scrollAndShot(check);
             }
          } catch (Exception e) {
             TestReport.logExceptionMessage(e);
@@ -244,6 +287,16 @@ public class ListenerPlugin implements ConcurrentEventListener, io.cucumber.plug
       }
    }
 
+   /**
+    * Hands a screenshot over to be written to the current step
+    *
+    * @param image the image as taken
+    * @param check the screenshot policy check, or null for none
+    */
+   private static void submitScreenshot(byte[] image, Supplier<ScreenshotPolicy.Check> check) {
+      ScreenshotPipeline.submit(ExtentCucumberAdapter.getCurrentStep(), image, check.get());
+   }
+
    private void populateExtentEnvInfo() {
       ExtentService.getInstance().setSystemInfo("Browser", BaseTestConfiguration.getBrowser());
       ExtentService.getInstance().setSystemInfo("Headless", BaseTestConfiguration.getHeadless());
@@ -4,17 +4,25 @@ import static org.hamcrest.MatcherAssert.assertThat;
 
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import org.apache.commons.lang3.NotImplementedException;
 import org.apache.commons.lang3.StringUtils;
 import org.openqa.selenium.Alert;
 import org.openqa.selenium.By;
-import org.openqa.selenium.ElementClickInterceptedException;
 import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.Keys;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.Rectangle;
 import org.openqa.selenium.StaleElementReferenceException;
 import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.interactions.Actions;
 import org.openqa.selenium.remote.RemoteWebDriver;
@@ -24,8 +32,19 @@ import org.openqa.selenium.support.ui.Select;
 import org.openqa.selenium.support.ui.WebDriverWait;
 
 import constants.IConstants;
+import utils.CustomExceptions.FormFillException;
 import utils.DriverManager;
+import utils.ElementCache;
+import utils.LocatorRegistry;
+import utils.LocatorTimings;
+import utils.MutationWait;
+import utils.MutationWait.DomCondition;
+import utils.PageQuiescence;
+import utils.RetryPolicy;
+import utils.RetryPolicy.FailureKind;
 import utils.TestLoggerHolder;
+import utils.WaitEngine;
+import utils.WaitEngine.Timeout;
 
 /**
  * Base class for all Page Objects. Provides utility methods for element
@@ -34,6 +53,7 @@ import utils.TestLoggerHolder;
 public class BasePageClass {
 
    private WebDriverWait wait;
+   private ElementCache elementCache;
 
    // String Constants
    protected static final String STALE_ELEMENT_EXCEPTION_MESSAGE = "StaleElement Exception so retrying";
@@ -41,6 +61,102 @@ public class BasePageClass {
 
    // String Constants for elements
    private static final String ARGUMENTS_0_CLICK = "arguments[0].click();";
+   /** How long the page has to stop changing before an intercepted click is retried **/
+   private static final Duration DOM_QUIET_PERIOD = Duration.ofMillis(150);
+   /**
+    * Finds the elements matching a parsed locator (arguments: scope element or
+    * null, locator kind, locator value, attribute names) and reads them all in
+    * one go
+    **/
+   private static final String BULK_READ_SCRIPT = MutationWait.FIND_ELEMENTS_FUNCTION + """
+         var root = arguments[0] || document, names = arguments[3];
+         var found = findElements(root, arguments[1], arguments[2]);
+         return found.map(function (el) {
+            var option = el.tagName === 'OPTION', shown = option ? (el.closest('select') || el) : el;
+            var style = window.getComputedStyle(shown), box = el.getBoundingClientRect();
+            var displayed = shown.getClientRects().length > 0 && style.visibility !== 'hidden';
+            var attributes = {};
+            names.forEach(function (name) { attributes[name] = el.getAttribute(name); });
+            return { element: el, displayed: displayed, attributes: attributes,
+               text: option ? el.text.trim() : displayed ? (el.innerText || '').trim() : '',
+               x: Math.round(box.x), y: Math.round(box.y),
+               width: Math.round(box.width), height: Math.round(box.height) };
+         });
+         """;
+   /**
+    * Finds the first element of each form field (arguments: list of locator kind,
+    * locator value and value to fill, whether to fill by script) and checks they
+    * can all be filled, including that each is the right kind of field and that
+    * a select has the option, before changing any. Selects are always set, and
+    * in script mode text is set (with input and change events so the application
+    * sees it) and checkboxes clicked. Otherwise text fields are cleared for
+    * typing. Returns the failing field's index, why and whether waiting cannot
+    * help, or the elements and what is left to do to each.
+    **/
+   private static final String FILL_FORM_SCRIPT = MutationWait.FIND_ELEMENTS_FUNCTION + """
+         var fields = arguments[0], byScript = arguments[1], elements = [], options = [], actions = [];
+         function fire(el, type) { el.dispatchEvent(new Event(type, { bubbles: true })); }
+         function setValue(el, value) {
+            var proto = el.tagName === 'TEXTAREA' ? HTMLTextAreaElement.prototype : HTMLInputElement.prototype;
+            Object.getOwnPropertyDescriptor(proto, 'value').set.call(el, value);
+            fire(el, 'input');
+         }
+         for (var i = 0; i < fields.length; i++) {
+            var el = findElements(document, fields[i].kind, fields[i].value)[0];
+            if (!el) return { failed: i, reason: 'not found' };
+            if (el.getClientRects().length === 0 || window.getComputedStyle(el).visibility === 'hidden') {
+               return { failed: i, reason: 'not displayed' };
+            }
+            if (el.disabled || el.readOnly || el.getAttribute('aria-disabled') === 'true') {
+               return { failed: i, reason: 'not editable' };
+            }
+            var fill = fields[i].fill;
+            var checkable = el.tagName === 'INPUT' && (el.type === 'checkbox' || el.type === 'radio');
+            if (typeof fill === 'boolean') {
+               if (!checkable && el.getAttribute('role') !== 'checkbox' && el.getAttribute('role') !== 'radio') {
+                  return { failed: i, reason: 'not a checkbox', permanent: true };
+               }
+            } else if (el.tagName === 'SELECT') {
+               options[i] = Array.from(el.options).find(function (o) { return o.text.trim() === fill; });
+               // Options are often loaded after the select, so this one is waited for
+               if (!options[i]) return { failed: i, reason: 'no option "' + fill + '"' };
+            } else if (el.tagName !== 'TEXTAREA' && (el.tagName !== 'INPUT' || checkable)) {
+               return { failed: i, reason: 'not a text field', permanent: true };
+            }
+            elements.push(el);
+         }
+         for (var i = 0; i < fields.length; i++) {
+            var el = elements[i], fill = fields[i].fill, action = 'none';
+            if (typeof fill === 'boolean') {
+               var input = el.tagName === 'INPUT' && (el.type === 'checkbox' || el.type === 'radio');
+               var checked = input ? el.checked : el.getAttribute('aria-checked') === 'true';
+               if (checked !== fill) {
+                  if (byScript) el.click(); else action = 'click';
+               }
+            } else if (el.tagName === 'SELECT') {
+               if (!options[i].selected) { options[i].selected = true; fire(el, 'input'); fire(el, 'change'); }
+            } else if (byScript) {
+               el.focus();
+               setValue(el, fill);
+               fire(el, 'change');
+               el.blur();
+            } else {
+               if (el.value !== '') setValue(el, '');
+               action = 'type';
+            }
+            actions.push(action);
+         }
+         return { elements: elements, actions: actions };
+         """;
+   /**
+    * Whether the element (argument) is the top element at its centre. An
+    * element outside the viewport counts as uncovered, as a click scrolls to it.
+    **/
+   private static final String UNCOVERED_SCRIPT = """
+         var el = arguments[0], box = el.getBoundingClientRect();
+         var top = document.elementFromPoint(box.x + box.width / 2, box.y + box.height / 2);
+         return !top || el === top || el.contains(top);
+         """;
    // Dialog Box
    private static final String DIALOG_COMMIT = "css::.md-confirm-button";
    private static final String DIALOG_CANCEL = "css::.md-cancel-button";
@@ -85,10 +201,51 @@ public class BasePageClass {
    public static final String DRIVER_IS_NULL = "Driver is Null";
 
    /**
-    * Default constructor.
+    * How {@link #fillForm(Map, FillMode)} puts the values into the form
+    */
+   public enum FillMode {
+      /** Text is typed with real key presses and checkboxes clicked natively */
+      TYPE,
+      /**
+       * Everything is set by one script that fires the input and change events,
+       * for forms that do not need key presses (e.g. no keyup handlers or input
+       * masks)
+       */
+      SCRIPT
+   }
+
+   /**
+    * What a bulk read returns for each element
+    *
+    * @param element    the element, for any follow up action
+    * @param text       the visible text, as {@link WebElement#getText()} (empty
+    *                   if the element is not displayed)
+    * @param displayed  whether the element is displayed
+    * @param attributes the attributes asked for (null values for attributes the
+    *                   element does not have)
+    * @param rect       the bounding box relative to the viewport
+    */
+   public record ElementSnapshot(WebElement element, String text, boolean displayed, Map<String, String> attributes,
+         Rectangle rect) {
+   }
+
+   /**
+    * Default constructor. Checks the page object's locator constants the first
+    * time the page object is created.
     */
    public BasePageClass() {
-      // no-op
+      LocatorRegistry.validate(getClass());
+   }
+
+   /**
+    * Turns on element caching for this page object: an element found by one
+    * action is reused by the next actions on the same locator until the page
+    * navigates, switches frame or the element goes stale. Call it from the
+    * constructor of page objects whose actions repeatedly use the same
+    * elements, e.g. long forms.
+    */
+   protected void useElementCache() {
+      elementCache = new ElementCache();
    }
 
    /**
@@ -138,39 +295,16 @@ public class BasePageClass {
    }
 
    /**
-    * This method takes a string and returns a given locator. It splits the string
-    * on ':' The first part is the locator type and second part is the locator
-    * value. It returns the 'by' locator
+    * This method takes a string and returns a given locator. The string is the
+    * locator type and the locator value separated by '::'. Each string is only
+    * parsed once, see {@link LocatorRegistry}.
     * 
     * @param strElement This is the string type and locator separated by :: used to
     *                   find the element
     * @return locator
     */
    public By byLocator(String strElement) {
-      String locatorType = strElement.split("::")[0];
-      String locatorValue = strElement.split("::")[1];
-
-      // For Testing Purposes and Debugging
-      TestLoggerHolder.getLogger().debug("Retrieving object of type '{}' and value '{}'", locatorType, locatorValue);
-
-      if ("id".equalsIgnoreCase(locatorType))
-         return By.id(locatorValue);
-      else if (("classname".equalsIgnoreCase(locatorType)) || ("class".equalsIgnoreCase(locatorType)))
-         return By.className(locatorValue);
-      else if (("linktext".equalsIgnoreCase(locatorType)) || ("link".equalsIgnoreCase(locatorType)))
-         return By.linkText(locatorValue);
-      else if ("partiallinktext".equalsIgnoreCase(locatorType))
-         return By.partialLinkText(locatorValue);
-      else if (("cssselector".equalsIgnoreCase(locatorType)) || ("css".equalsIgnoreCase(locatorType)))
-         return By.cssSelector(locatorValue);
-      else if ("xpath".equalsIgnoreCase(locatorType))
-         return By.xpath(locatorValue);
-      else if ("name".equalsIgnoreCase(locatorType))
-         return By.name(locatorValue);
-      else if ("tagName".equalsIgnoreCase(locatorType))
-         return By.tagName(locatorValue);
-      else
-         throw new IllegalArgumentException("Unknown locator type '" + locatorType + "'");
+      return LocatorRegistry.get(strElement).by();
    }
 
    /**
@@ -181,14 +315,7 @@ public class BasePageClass {
     *                   find the element
     */
    public void clearElement(String strElement) {
-      try {
-         waitForElementToBeClickable(strElement).clear();
-      } catch (StaleElementReferenceException e) {
-         TestLoggerHolder.getLogger().info(STALE_ELEMENT_EXCEPTION_MESSAGE);
-         // Note: no need to user driver.findElement as the driver holds nothing about
-         // the page. It's just a way of interacting with it.
-         waitForElementToBeClickable(strElement).clear();
-      }
+      withRetry(strElement, () -> waitForElementToBeClickable(strElement).clear());
    }
 
    /**
@@ -197,27 +324,8 @@ public class BasePageClass {
     * @param strElement locator in format "css::button" or "xpath:://button"
     */
    public void click(String strElement) {
-      boolean buttonClickedOK = false;
-      int attempts = 0;
       // Wait for the element to be clickable then click it.
-      while (!buttonClickedOK && attempts < 5) {
-         try {
-            waitForElementToBeClickable(strElement).click();
-            buttonClickedOK = true;
-         } catch (ElementClickInterceptedException e) {
-            TestLoggerHolder.getLogger().info("{} {}", "Wait due to Click Intercepted Exception, attempt : ", attempts);
-            sleep(1);
-            sendKeys(strElement, Keys.TAB);
-         } catch (StaleElementReferenceException e) {
-            TestLoggerHolder.getLogger().info(STALE_ELEMENT_EXCEPTION_MESSAGE);
-         }
-         attempts++;
-      }
-
-      if (!buttonClickedOK) {
-         // This will fail but we can output the exception..
-         waitForElementToBeClickable(strElement).click();
-      }
+      withRetry(strElement, () -> waitForElementToBeClickable(strElement).click());
    }
 
    /**
@@ -245,25 +353,14 @@ public class BasePageClass {
     * @param textToClick String the text to click in the div
     */
    public void clickMdSelectItem(String textToClick) {
-      setWait(new WebDriverWait(getDriver(), Duration.ofSeconds(10)));
-      List<WebElement> divElements = findElementsBy(CONTENT_BOX);
+      List<ElementSnapshot> items = readContentBoxItems(textToClick);
       boolean itemClicked = false;
       // reverse order because some menus start with a blank item
-      for (int x = divElements.size() - 1; x >= 0; x--) {
-         // Some times the div box is displayed with no text so put in an iterative wait
-         // until its populated..
-         int count = 0;
-         while (StringUtils.isBlank(divElements.get(x).getText()) && count < 5) {
-            TestLoggerHolder.getLogger().info(SLEEP_COUNT, count);
-            sleep(0.5);
-            count++;
-         }
-         if (divElements.get(x).getText().equalsIgnoreCase(textToClick)) {
-            divElements.get(x).click();
+      for (int x = items.size() - 1; x >= 0; x--) {
+         if (items.get(x).text().equalsIgnoreCase(textToClick)) {
+            items.get(x).element().click();
             itemClicked = true;
-            // Pause needed for refreshing divElements
-            sleep(0.5);
-            divElements.clear();
+            waitForContentBoxToClose();
             break;
          }
       }
@@ -279,9 +376,7 @@ public class BasePageClass {
     * @return The Default Item
     */
    public String getDefaultItemInDropdownList() {
-      setWait(new WebDriverWait(getDriver(), Duration.ofSeconds(10)));
-      List<WebElement> divElements = findElementsBy(CONTENT_BOX);
-      return divElements.get(0).getText();
+      return readElements(CONTENT_BOX, Timeout.MEDIUM).get(0).text();
    }
 
    /**
@@ -290,27 +385,49 @@ public class BasePageClass {
     * @return - List of values
     */
    public List<String> getDropdownList() {
-      setWait(new WebDriverWait(getDriver(), Duration.ofSeconds(10)));
-      List<WebElement> divElements = findElementsBy(CONTENT_BOX);
+      List<ElementSnapshot> items = readContentBoxItems(null);
       List<String> optionTexts = new ArrayList<>();
 
       // reverse order because some menus start with a blank item
-      for (int x = divElements.size() - 1; x >= 0; x--) {
-         // Some times the div box is displayed with no text so put in an iterative wait
-         // until its populated..
-
-         int count = 0;
-         while (StringUtils.isBlank(divElements.get(x).getText()) && count < 5) {
-            TestLoggerHolder.getLogger().info(SLEEP_COUNT, count);
-            sleep(0.5);
-            count++;
-         }
-         String text = divElements.get(x).getText();
-         optionTexts.add(text);
+      for (int x = items.size() - 1; x >= 0; x--) {
+         optionTexts.add(items.get(x).text());
       }
       return optionTexts;
    }
 
+   /**
+    * This method reads the items of the open content box in one go. Some times
+    * the div box is displayed with no text so the items are read again once
+    * they are populated, or once the item to click is there. A single blank
+    * item is not waited on, as some menus start with a blank item.
+    * 
+    * @param textToClick The text of the item to click, or null
+    * @return The content box items
+    */
+   private List<ElementSnapshot> readContentBoxItems(String textToClick) {
+      List<ElementSnapshot> items = readElements(CONTENT_BOX, Timeout.MEDIUM);
+      DomCondition populated = null;
+      if (items.stream().allMatch(item -> StringUtils.isBlank(item.text()))) {
+         populated = DomCondition.textPopulated();
+      } else if (textToClick != null && items.stream().noneMatch(item -> item.text().equalsIgnoreCase(textToClick))) {
+         populated = DomCondition.textContainsIgnoreCase(textToClick);
+      }
+      if (populated != null) {
+         TestLoggerHolder.getLogger().info("Content box items are not populated, waiting for them");
+         waitForDomCondition(CONTENT_BOX, populated, Timeout.SHORT);
+         items = readElements(CONTENT_BOX, Timeout.MEDIUM);
+      }
+      return items;
+   }
+
+   /**
+    * This method waits for the content box to close after an item is clicked,
+    * so that the next action does not find the old items
+    */
+   private void waitForContentBoxToClose() {
+      waitForDomCondition(CONTENT_BOX, DomCondition.absent(), Timeout.PROBE);
+   }
+
    /**
     * This method is a wrapper class for clicking the first item within a content
     * box
@@ -318,26 +435,16 @@ public class BasePageClass {
     * @return The text of the first item
     */
    public String clickMdSelectFirstItem() {
-      setWait(new WebDriverWait(getDriver(), Duration.ofSeconds(10)));
-      List<WebElement> divElements = findElementsBy(CONTENT_BOX);
+      ElementSnapshot firstElement = readContentBoxItems(null).get(0);
 
       String firstItem = "";
 
-      // Some times the div box is displayed with no text so put in an iterative wait
-      int count = 0;
-      while (StringUtils.isBlank(divElements.get(0).getText()) && count < 5) {
-         TestLoggerHolder.getLogger().info(SLEEP_COUNT, count);
-         sleep(0.5);
-         count++;
-      }
-      if (StringUtils.isBlank(divElements.get(0).getText())) {
+      if (StringUtils.isBlank(firstElement.text())) {
          throw new NotImplementedException("No item could be found to click under the content box " + CONTENT_BOX);
       } else {
-         firstItem = divElements.get(0).getText();
-         divElements.get(0).click();
-         // Pause needed for refreshing divElements
-         sleep(0.5);
-         divElements.clear();
+         firstItem = firstElement.text();
+         firstElement.element().click();
+         waitForContentBoxToClose();
       }
       TestLoggerHolder.getLogger().info("Usergroup: {}", firstItem);
       return firstItem;
@@ -399,7 +506,7 @@ public class BasePageClass {
                if (liItems.get(y).getText().equals(text)) {
                   sleep(0.5);
                   liItems.get(y).click();
-                  setWait(new WebDriverWait(getDriver(), Duration.ofMillis(5000)));
+                  setWait(WaitEngine.getWait(Timeout.SHORT));
                   getWait().until(ExpectedConditions.attributeContains(container, "aria-hidden", "true"));
                   enterClicked = true;
                   break;
@@ -419,7 +526,7 @@ public class BasePageClass {
 
       TestLoggerHolder.getLogger().info("Click the Commit button on the dialog");
       click(DIALOG_COMMIT);
-      setWait(new WebDriverWait(getDriver(), Duration.ofMillis(500)));
+      setWait(WaitEngine.getWait(Timeout.PROBE));
       // Sometime it doesn't actually click commit, so check for the existence of the
       // dialog box, if its still there click it again.
       int attempts = 0;
@@ -477,17 +584,88 @@ public class BasePageClass {
     * @return Returns a list of the web elements found using the locator
     */
    public List<WebElement> findElementsBy(String strElement) {
-      By by = byLocator(strElement);
-      setWait(new WebDriverWait(getDriver(), Duration.ofSeconds(15)));
-      try {
-         getWait().until(ExpectedConditions.presenceOfElementLocated(by));
-         return getDriver().findElements(by);
-      } catch (StaleElementReferenceException e) {
-         TestLoggerHolder.getLogger().info(STALE_ELEMENT_EXCEPTION_MESSAGE);
-         getWait().until(ExpectedConditions.presenceOfElementLocated(by));
-         return getDriver().findElements(by);
-      }
+      return timed(strElement, () -> {
+         By by = byLocator(strElement);
+         setWait(WaitEngine.getWait());
+         return withRetry(strElement, () -> {
+            getWait().until(ExpectedConditions.presenceOfElementLocated(by));
+            return getDriver().findElements(by);
+         });
+      });
+   }
+
+   /**
+    * This method reads the text, visibility, bounding box and the given
+    * attributes of every element matching a locator in a single script call,
+    * rather than a round trip per element and property. It waits (for the
+    * DEFAULT timeout) for at least one element to match.
+    * 
+    * @param strElement This is the string type and locator separated by :: used to
+    *                   find the elements
+    * @param attributes The attributes to read
+    * @return A snapshot of each element, in document order
+    */
+   public List<ElementSnapshot> readElements(String strElement, String... attributes) {
+      return readElements(strElement, Timeout.DEFAULT, attributes);
+   }
+
+   /**
+    * This method reads the text, visibility, bounding box and the given
+    * attributes of every element matching a locator in a single script call,
+    * waiting for at least one element to match
+    * 
+    * @param strElement This is the string type and locator separated by :: used to
+    *                   find the elements
+    * @param timeout    How long to wait for an element to match
+    * @param attributes The attributes to read
+    * @return A snapshot of each element, in document order
+    */
+   public List<ElementSnapshot> readElements(String strElement, Timeout timeout, String... attributes) {
+      return timed(strElement, () -> WaitEngine.getWait(timeout).until(driver -> {
+         List<ElementSnapshot> snapshots = bulkRead(null, strElement, attributes);
+         return snapshots.isEmpty() ? null : snapshots;
+      }));
+   }
+
+   /**
+    * This method reads the text, visibility, bounding box and the given
+    * attributes of every element matching a locator within another element
+    * (e.g. the TDs of a TR) in a single script call, without waiting
+    * 
+    * @param outerElement           The Web element that contains the elements
+    * @param innerElementsByLocator The string locator for the inner elements
+    * @param attributes             The attributes to read
+    * @return A snapshot of each element, in document order
+    */
+   public List<ElementSnapshot> readElements(WebElement outerElement, String innerElementsByLocator,
+         String... attributes) {
+      return bulkRead(outerElement, innerElementsByLocator, attributes);
+   }
 
+   /**
+    * This method runs the bulk read script
+    * 
+    * @param scope      The element to search within, null for the whole page
+    * @param strElement The string locator for the elements
+    * @param attributes The attributes to read
+    * @return A snapshot of each element
+    */
+   @SuppressWarnings("unchecked")
+   private List<ElementSnapshot> bulkRead(WebElement scope, String strElement, String... attributes) {
+      LocatorRegistry.Locator locator = LocatorRegistry.get(strElement);
+      List<Map<String, Object>> results = (List<Map<String, Object>>) ((JavascriptExecutor) getDriver())
+            .executeScript(BULK_READ_SCRIPT, scope, locator.kind().name(), locator.value(), List.of(attributes));
+      List<ElementSnapshot> snapshots = new ArrayList<>();
+      for (Map<String, Object> result : results) {
+         Map<String, String> attributeValues = new LinkedHashMap<>();
+         ((Map<String, Object>) result.get("attributes"))
+               .forEach((name, value) -> attributeValues.put(name, value == null ? null : String.valueOf(value)));
+         Rectangle rect = new Rectangle(((Number) result.get("x")).intValue(), ((Number) result.get("y")).intValue(),
+               ((Number) result.get("height")).intValue(), ((Number) result.get("width")).intValue());
+         snapshots.add(new ElementSnapshot((WebElement) result.get("element"), (String) result.get("text"),
+               Boolean.TRUE.equals(result.get("displayed")), attributeValues, rect));
+      }
+      return snapshots;
    }
 
    /**
@@ -500,15 +678,13 @@ public class BasePageClass {
     * @return String
     */
    public String getAttribute(String strElement, String attribute) {
-      // Get The locator
-      By by = byLocator(strElement);
-      setWait(new WebDriverWait(getDriver(), Duration.ofSeconds(15)));
-      try {
-         return getWait().until(ExpectedConditions.presenceOfElementLocated(by)).getAttribute(attribute);
-      } catch (Exception e) {
-         TestLoggerHolder.getLogger().info(STALE_ELEMENT_EXCEPTION_MESSAGE);
-         return getWait().until(ExpectedConditions.visibilityOfElementLocated(by)).getAttribute(attribute);
-      }
+      return timed(strElement, () -> {
+         // Get The locator
+         By by = byLocator(strElement);
+         setWait(WaitEngine.getWait());
+         return withRetry(strElement,
+               () -> getWait().until(ExpectedConditions.presenceOfElementLocated(by)).getAttribute(attribute));
+      });
    }
 
    /**
@@ -521,16 +697,13 @@ public class BasePageClass {
     * @return WebElement
     */
    public String getCSSValue(String strElement, String attribute) {
-      // Get The locator
-      By by = byLocator(strElement);
-      setWait(new WebDriverWait(getDriver(), Duration.ofSeconds(15)));
-      try {
-         return getWait().until(ExpectedConditions.presenceOfElementLocated(by)).getCssValue(attribute);
-      } catch (Exception e) {
-         TestLoggerHolder.getLogger().info(STALE_ELEMENT_EXCEPTION_MESSAGE);
-         by = byLocator(strElement);
-         return getWait().until(ExpectedConditions.visibilityOfElementLocated(by)).getCssValue(attribute);
-      }
+      return timed(strElement, () -> {
+         // Get The locator
+         By by = byLocator(strElement);
+         setWait(WaitEngine.getWait());
+         return withRetry(strElement,
+               () -> getWait().until(ExpectedConditions.presenceOfElementLocated(by)).getCssValue(attribute));
+      });
    }
 
    /**
@@ -608,13 +781,8 @@ public class BasePageClass {
     * @return List Of Strings from the Select element
     */
    public List<String> getSelectList(String strElement) {
-      List<String> options = new ArrayList<>();
-      waitForElementToBeClickable(strElement);
-      Select select = select(strElement);
-      for (int x = 0; x < select.getOptions().size(); x++) {
-         options.add(select.getOptions().get(x).getText());
-      }
-      return options;
+      WebElement selectElement = waitForElementToBeClickable(strElement);
+      return bulkRead(selectElement, "tagName::option").stream().map(ElementSnapshot::text).toList();
    }
 
    /**
@@ -625,15 +793,12 @@ public class BasePageClass {
     * @return WebElement
     */
    public String getText(String strElement) {
-      setWait(new WebDriverWait(getDriver(), Duration.ofSeconds(15)));
-      try {
-         By by = byLocator(strElement);
-         return getWait().until(ExpectedConditions.visibilityOfElementLocated(by)).getText();
-      } catch (StaleElementReferenceException e) {
-         TestLoggerHolder.getLogger().info(STALE_ELEMENT_EXCEPTION_MESSAGE);
+      return timed(strElement, () -> {
+         setWait(WaitEngine.getWait());
          By by = byLocator(strElement);
-         return getWait().until(ExpectedConditions.visibilityOfElementLocated(by)).getText();
-      }
+         return withRetry(strElement,
+               () -> getWait().until(ExpectedConditions.visibilityOfElementLocated(by)).getText());
+      });
    }
 
    /**
@@ -679,14 +844,16 @@ public class BasePageClass {
     * @return boolean
     */
    public boolean isElementExists(WebDriverWait wait, String strElement) {
-      By by = byLocator(strElement);
-      setWait(wait);
-      try {
-         getWait().until(ExpectedConditions.presenceOfElementLocated(by));
-         return true;
-      } catch (Exception e) {
-         return false;
-      }
+      return timedCheck(strElement, () -> {
+         By by = byLocator(strElement);
+         setWait(wait);
+         try {
+            getWait().until(ExpectedConditions.presenceOfElementLocated(by));
+            return true;
+         } catch (Exception e) {
+            return false;
+         }
+      });
    }
 
    /**
@@ -697,28 +864,21 @@ public class BasePageClass {
     * @return WebElement
     */
    public boolean isEnabled(String strElement) {
-      setWait(new WebDriverWait(getDriver(), Duration.ofSeconds(5)));
-
-      try {
-         if (isElementExists(getWait(), strElement)) {
-            return getDriver().findElement(byLocator(strElement)).isEnabled();
-         } else {
-            return false;
-         }
-      } catch (StaleElementReferenceException e) {
-         TestLoggerHolder.getLogger().info(STALE_ELEMENT_EXCEPTION_MESSAGE);
-         if (isElementExists(wait, strElement)) {
-            return getDriver().findElement(byLocator(strElement)).isEnabled();
-         } else {
+      WebDriverWait shortWait = WaitEngine.getWait(Timeout.SHORT);
+      return withRetry(strElement, () -> {
+         try {
+            return rtnElementIfExists(shortWait, strElement).isEnabled();
+         } catch (TimeoutException e) {
             return false;
          }
-      }
+      });
    }
 
    /**
     * This method refreshes the current page
     */
    public static void refresh() {
+      ElementCache.invalidateAll();
       getDriver().navigate().refresh();
    }
 
@@ -726,6 +886,7 @@ public class BasePageClass {
     * This method navigates back to the previous page
     */
    public static void navigateBack() {
+      ElementCache.invalidateAll();
       getDriver().navigate().back();
    }
 
@@ -747,12 +908,14 @@ public class BasePageClass {
     * @return The web element if it is visible
     */
    public WebElement rtnElementIfVisible(WebDriverWait wait, String strElement) {
-      By by = byLocator(strElement);
-      WebElement object = wait.until(ExpectedConditions.visibilityOfElementLocated(by));
-      if (object == null) {
-         throw new NotImplementedException("THE_OBJECT" + " " + strElement + " is not visible");
-      }
-      return object;
+      return timed(strElement, () -> {
+         By by = byLocator(strElement);
+         WebElement object = wait.until(ExpectedConditions.visibilityOfElementLocated(by));
+         if (object == null) {
+            throw new NotImplementedException("THE_OBJECT" + " " + strElement + " is not visible");
+         }
+         return object;
+      });
    }
 
    /**
@@ -763,12 +926,14 @@ public class BasePageClass {
     * @return The web element if it is visible
     */
    public WebElement rtnElementIfExists(WebDriverWait wait, String strElement) {
-      By by = byLocator(strElement);
-      WebElement object = wait.until(ExpectedConditions.presenceOfElementLocated(by));
-      if (object == null) {
-         throw new NotImplementedException("THE_OBJECT" + " " + strElement + " does not exist");
-      }
-      return object;
+      return timed(strElement, () -> {
+         By by = byLocator(strElement);
+         WebElement object = wait.until(ExpectedConditions.presenceOfElementLocated(by));
+         if (object == null) {
+            throw new NotImplementedException("THE_OBJECT" + " " + strElement + " does not exist");
+         }
+         return object;
+      });
    }
 
    /**
@@ -792,16 +957,7 @@ public class BasePageClass {
     * @param text       This is text to select
     */
    public void selectByVisibleText(String strElement, String text) {
-      try {
-         waitForElementToBeClickable(strElement);
-         Select select = select(strElement);
-         select.selectByVisibleText(text);
-      } catch (StaleElementReferenceException e) {
-         TestLoggerHolder.getLogger().info(STALE_ELEMENT_EXCEPTION_MESSAGE);
-         waitForElementToBeClickable(strElement);
-         Select select = select(strElement);
-         select.selectByVisibleText(text);
-      }
+      withRetry(strElement, () -> select(strElement).selectByVisibleText(text));
    }
 
    /**
@@ -813,13 +969,95 @@ public class BasePageClass {
     * @param text       This is the text to send to the WebElement
     */
    public void sendKeys(String strElement, String text) {
-      try {
-         clearElement(strElement);
-         waitForElementToBeClickable(strElement).sendKeys(text);
-      } catch (StaleElementReferenceException e) {
-         TestLoggerHolder.getLogger().info(STALE_ELEMENT_EXCEPTION_MESSAGE);
-         waitForElementToBeClickable(strElement).sendKeys(text);
-      }
+      withRetry(strElement, () -> {
+         WebElement element = waitForElementToBeClickable(strElement);
+         element.clear();
+         element.sendKeys(text);
+      });
+   }
+
+   /**
+    * This method fills a form by typing, see {@link #fillForm(Map, FillMode)}
+    * 
+    * @param fields The string locator of each field and the value to fill it
+    *               with, in the order to fill them
+    */
+   public void fillForm(Map<String, ?> fields) {
+      fillForm(fields, FillMode.TYPE);
+   }
+
+   /**
+    * This method fills a form in a few round trips rather than a wait, find,
+    * clear and type per field. One script finds every field and checks they can
+    * all be filled before any is changed (waiting until they can, unless a field
+    * is the wrong kind of field for its value), then the values are applied: the
+    * typing and clicks go to the browser as one actions sequence. A
+    * String value is typed into a text field or chooses the option with that
+    * visible text in a select, a Boolean value sets a checkbox or radio button
+    * and a null value leaves the field alone.
+    * 
+    * @param fields The string locator of each field and the value to fill it
+    *               with, in the order to fill them
+    * @param mode   Whether text is typed or set by script
+    * @throws FormFillException naming the field that could not be filled
+    */
+   @SuppressWarnings("unchecked")
+   public void fillForm(Map<String, ?> fields, FillMode mode) {
+      List<String> locators = new ArrayList<>();
+      List<Map<String, Object>> specs = new ArrayList<>();
+      fields.forEach((strElement, value) -> {
+         if (value != null) {
+            LocatorRegistry.Locator locator = LocatorRegistry.get(strElement);
+            locators.add(strElement);
+            specs.add(Map.of("kind", locator.kind().name(), "value", locator.value(), "fill",
+                  value instanceof Boolean ? value : String.valueOf(value)));
+         }
+      });
+      long start = System.nanoTime();
+      timed("fillForm (" + specs.size() + " fields)", () -> {
+         AtomicReference<Map<String, Object>> result = new AtomicReference<>();
+         TimeoutException timeout = null;
+         try {
+            WaitEngine.getWait().until(driver -> {
+               result.set((Map<String, Object>) ((JavascriptExecutor) getDriver()).executeScript(FILL_FORM_SCRIPT,
+                     specs, mode == FillMode.SCRIPT));
+               // Waiting cannot turn a field into the kind its value needs
+               return !result.get().containsKey("failed") || Boolean.TRUE.equals(result.get().get("permanent"));
+            });
+         } catch (TimeoutException e) {
+            timeout = e;
+         }
+         if (result.get().containsKey("failed")) {
+            int failed = ((Number) result.get().get("failed")).intValue();
+            throw new FormFillException(
+                  "Could not fill form field " + locators.get(failed) + ": " + result.get().get("reason"), timeout);
+         }
+         List<WebElement> elements = (List<WebElement>) result.get().get("elements");
+         List<String> actions = (List<String>) result.get().get("actions");
+         // Every click and key press in one actions sequence, so one round trip
+         Actions sequence = new Actions(getDriver());
+         List<String> filled = new ArrayList<>();
+         for (int i = 0; i < actions.size(); i++) {
+            if (!"none".equals(actions.get(i))) {
+               WebElement element = elements.get(i);
+               sequence.scrollToElement(element).moveToElement(element).click();
+               if ("type".equals(actions.get(i))) {
+                  sequence.sendKeys((String) specs.get(i).get("fill"));
+               }
+               filled.add(locators.get(i));
+            }
+         }
+         if (!filled.isEmpty()) {
+            try {
+               sequence.perform();
+            } catch (WebDriverException e) {
+               throw new FormFillException("Could not fill form fields " + filled + ": " + e.getMessage(), e);
+            }
+         }
+         return null;
+      });
+      TestLoggerHolder.getLogger().info("Filled {} form fields on {} by {} in {} ms", specs.size(),
+            getClass().getSimpleName(), mode, (System.nanoTime() - start) / 1_000_000);
    }
 
    /**
@@ -832,16 +1070,8 @@ public class BasePageClass {
     *                   WebElement
     */
    public void sendKeysForFileUpload(String strElement, String filePath) {
-      try {
-         wait = new WebDriverWait(getDriver(), Duration.ofSeconds(10));
-         WebElement button = rtnElementIfExists(wait, strElement);
-         button.sendKeys(filePath);
-      } catch (StaleElementReferenceException e) {
-         TestLoggerHolder.getLogger().info(STALE_ELEMENT_EXCEPTION_MESSAGE);
-         wait = new WebDriverWait(getDriver(), Duration.ofSeconds(10));
-         WebElement button = rtnElementIfExists(wait, strElement);
-         button.sendKeys(filePath);
-      }
+      wait = WaitEngine.getWait(Timeout.MEDIUM);
+      withRetry(strElement, () -> rtnElementIfExists(wait, strElement).sendKeys(filePath));
    }
 
    /**
@@ -865,12 +1095,7 @@ public class BasePageClass {
     * @param key        This is the keys to send to the WebElement
     */
    public void sendKeys(String strElement, Keys key) {
-      try {
-         waitForElementToBeClickable(strElement).sendKeys(key);
-      } catch (StaleElementReferenceException e) {
-         TestLoggerHolder.getLogger().info(STALE_ELEMENT_EXCEPTION_MESSAGE);
-         waitForElementToBeClickable(strElement).sendKeys(key);
-      }
+      withRetry(strElement, () -> waitForElementToBeClickable(strElement).sendKeys(key));
    }
 
    /**
@@ -904,6 +1129,7 @@ public class BasePageClass {
     */
    public void switchToFrame(String frame) {
       WebElement frameToSwitchTo = waitForElementToBeClickable(frame);
+      ElementCache.invalidateAll();
       getDriver().switchTo().frame(frameToSwitchTo);
    }
 
@@ -911,6 +1137,7 @@ public class BasePageClass {
     * This method switches the focus back to the default content
     */
    public void switchToDefaultContent() {
+      ElementCache.invalidateAll();
       getDriver().switchTo().defaultContent();
    }
 
@@ -918,6 +1145,7 @@ public class BasePageClass {
     * This method switches to the main window
     */
    public void switchToMainWindow() {
+      ElementCache.invalidateAll();
       // Get The main tab
       String mainWindow = getDriver().getWindowHandle();
       // Iterate and close all the other tabs
@@ -936,14 +1164,12 @@ public class BasePageClass {
     *                   find the element
     */
    public void waitForInVisibilityOfElementLocatedBy(String strElement) {
-      By by = byLocator(strElement);
-      setWait(new WebDriverWait(getDriver(), Duration.ofSeconds(15)));
-      try {
-         getWait().until(ExpectedConditions.invisibilityOfElementLocated(by));
-      } catch (StaleElementReferenceException e) {
-         TestLoggerHolder.getLogger().info(STALE_ELEMENT_EXCEPTION_MESSAGE);
-         getWait().until(ExpectedConditions.visibilityOfElementLocated(by));
-      }
+      // A stale element counts as invisible, so this needs no retries
+      timed(strElement, () -> {
+         By by = byLocator(strElement);
+         setWait(WaitEngine.getWait());
+         return getWait().until(ExpectedConditions.invisibilityOfElementLocated(by));
+      });
    }
 
    /**
@@ -954,14 +1180,12 @@ public class BasePageClass {
     * @return Returns the element if is is visible
     */
    public WebElement waitForVisibilityOfElementLocatedBy(String strElement) {
-      By by = byLocator(strElement);
-      setWait(new WebDriverWait(getDriver(), Duration.ofSeconds(15)));
-      try {
-         return getWait().until(ExpectedConditions.visibilityOfElementLocated(by));
-      } catch (StaleElementReferenceException e) {
-         TestLoggerHolder.getLogger().info(STALE_ELEMENT_EXCEPTION_MESSAGE);
-         return getWait().until(ExpectedConditions.visibilityOfElementLocated(by));
-      }
+      return timed(strElement, () -> {
+         By by = byLocator(strElement);
+         setWait(WaitEngine.getWait());
+         return withRetry(strElement, () -> waitForElement(strElement,
+               ExpectedConditions.visibilityOfElementLocated(by), ExpectedConditions::visibilityOf));
+      });
    }
 
    /**
@@ -973,10 +1197,173 @@ public class BasePageClass {
     * @return WebElement
     */
    public WebElement waitForElementToBeClickable(String strElement) {
-      // Get the locator
-      By by = byLocator(strElement);
-      setWait(new WebDriverWait(getDriver(), Duration.ofSeconds(15)));
-      return getWait().until(ExpectedConditions.elementToBeClickable(by));
+      return timed(strElement, () -> {
+         // Get the locator
+         By by = byLocator(strElement);
+         setWait(WaitEngine.getWait());
+         return waitForElement(strElement, ExpectedConditions.elementToBeClickable(by),
+               ExpectedConditions::elementToBeClickable);
+      });
+   }
+
+   /**
+    * This method waits for an element using the current wait. If the page object
+    * caches elements and the element is cached, the wait is on the cached
+    * element, saving the find.
+    * 
+    * @param strElement       This is the string type and locator separated by ::
+    *                         used to find the element
+    * @param locatedCondition The condition on the locator
+    * @param cachedCondition  The same condition on a cached element
+    * @return WebElement
+    */
+   private WebElement waitForElement(String strElement, ExpectedCondition<WebElement> locatedCondition,
+         Function<WebElement, ExpectedCondition<WebElement>> cachedCondition) {
+      if (elementCache != null) {
+         WebElement cached = elementCache.get(strElement, getDriver());
+         if (cached != null) {
+            try {
+               return getWait().until(cachedCondition.apply(cached));
+            } catch (StaleElementReferenceException e) {
+               elementCache.invalidate(strElement);
+            }
+         }
+      }
+      WebElement element = getWait().until(locatedCondition);
+      return elementCache == null ? element : elementCache.put(strElement, element);
+   }
+
+   /**
+    * This method runs a page action, retrying it on failures that can pass (the
+    * element went stale or was covered), see {@link RetryPolicy}. A stale element
+    * is dropped from the element cache, a covered one waits until it is no
+    * longer covered (see {@link #waitUntilUncovered(String)}) and otherwise the
+    * page is left to stop changing before the retry.
+    * 
+    * @param <T>        The type the action returns
+    * @param strElement The string locator the action is on
+    * @param action     The action
+    * @return What the action returns
+    */
+   private <T> T withRetry(String strElement, Supplier<T> action) {
+      return RetryPolicy.run(strElement, action, kind -> {
+         if (kind == FailureKind.STALE) {
+            invalidateCachedElement(strElement);
+         } else if (kind == FailureKind.INTERCEPTED) {
+            waitUntilUncovered(strElement);
+         } else {
+            // Wait for whatever covers the element (overlay, animation) to stop changing
+            MutationWait.untilSettled(getDriver(), DOM_QUIET_PERIOD, Duration.ofSeconds(1));
+         }
+      });
+   }
+
+   /**
+    * This method waits, for up to the SHORT timeout, for whatever covers an
+    * element (an overlay, a spinner or a dropdown) to go. Once the page stops
+    * changing, a TAB is sent to the element if it is still covered, to close a
+    * dropdown or autocomplete left open over it.
+    * 
+    * @param strElement The string locator of the covered element
+    */
+   private void waitUntilUncovered(String strElement) {
+      MutationWait.untilSettled(getDriver(), DOM_QUIET_PERIOD, Duration.ofSeconds(1));
+      try {
+         WebElement element = getDriver().findElement(byLocator(strElement));
+         if (!isUncovered(element)) {
+            element.sendKeys(Keys.TAB);
+            WaitEngine.getWait(Timeout.SHORT).until(driver -> isUncovered(element));
+         }
+      } catch (TimeoutException e) {
+         TestLoggerHolder.getLogger().info("{} still covered after {}s", strElement,
+               Timeout.SHORT.getDuration().toSeconds());
+      } catch (WebDriverException e) {
+         // The element went or was replaced, the retry finds it again
+         TestLoggerHolder.getLogger().debug("{} changed while covered: {}", strElement, e.getMessage());
+      }
+   }
+
+   /**
+    * This method checks whether an element is the top element at its centre, so
+    * that a click on it is not intercepted
+    * 
+    * @param element The element
+    * @return true if nothing covers it (or it is outside the viewport)
+    */
+   private boolean isUncovered(WebElement element) {
+      return Boolean.TRUE.equals(((JavascriptExecutor) getDriver()).executeScript(UNCOVERED_SCRIPT, element));
+   }
+
+   /**
+    * This method runs a page action that returns nothing, retrying it on
+    * failures that can pass, see {@link #withRetry(String, Supplier)}
+    * 
+    * @param strElement The string locator the action is on
+    * @param action     The action
+    */
+   private void withRetry(String strElement, Runnable action) {
+      withRetry(strElement, () -> {
+         action.run();
+         return null;
+      });
+   }
+
+   /**
+    * This method runs a wait or find and records how long it took against the
+    * page object and locator, see {@link LocatorTimings}
+    * 
+    * @param <T>        The type the wait returns
+    * @param strElement The string locator being waited for
+    * @param wait       The wait
+    * @return What the wait returns
+    */
+   private <T> T timed(String strElement, Supplier<T> wait) {
+      long start = System.nanoTime();
+      try {
+         T result = wait.get();
+         LocatorTimings.record(getClass(), strElement, start, LocatorTimings.Outcome.FOUND);
+         return result;
+      } catch (TimeoutException | NoSuchElementException e) {
+         LocatorTimings.record(getClass(), strElement, start, LocatorTimings.Outcome.TIMEOUT);
+         throw e;
+      } catch (RuntimeException e) {
+         LocatorTimings.record(getClass(), strElement, start, LocatorTimings.Outcome.ERROR);
+         throw e;
+      }
+   }
+
+   /**
+    * This method runs a check that returns false rather than throwing when it
+    * times out, and records how long it took, see {@link LocatorTimings}
+    * 
+    * @param strElement The string locator being checked
+    * @param check      The check
+    * @return The result of the check
+    */
+   private boolean timedCheck(String strElement, BooleanSupplier check) {
+      long start = System.nanoTime();
+      try {
+         boolean result = check.getAsBoolean();
+         LocatorTimings.record(getClass(), strElement, start,
+               result ? LocatorTimings.Outcome.FOUND : LocatorTimings.Outcome.TIMEOUT);
+         return result;
+      } catch (RuntimeException e) {
+         LocatorTimings.record(getClass(), strElement, start, LocatorTimings.Outcome.ERROR);
+         throw e;
+      }
+   }
+
+   /**
+    * This method drops an element from the page object's element cache, e.g.
+    * because it has gone stale
+    * 
+    * @param strElement This is the string type and locator separated by :: used to
+    *                   find the element
+    */
+   private void invalidateCachedElement(String strElement) {
+      if (elementCache != null) {
+         elementCache.invalidate(strElement);
+      }
    }
 
    /**
@@ -988,9 +1375,11 @@ public class BasePageClass {
     * @return element this is the WebElement
     */
    public WebElement waitForElementToBeClickableElement(WebElement element) {
-      // Get the locator
-      setWait(new WebDriverWait(getDriver(), Duration.ofSeconds(15)));
-      return getWait().until(ExpectedConditions.elementToBeClickable(element));
+      return timed("element", () -> {
+         // Get the locator
+         setWait(WaitEngine.getWait());
+         return getWait().until(ExpectedConditions.elementToBeClickable(element));
+      });
    }
 
    /**
@@ -1001,13 +1390,32 @@ public class BasePageClass {
     * @return - true or false
     */
    public boolean waitForTextContains(String expectedText, String strElement) {
-      try {
-         By by = byLocator(strElement);
-         wait = getWait();
-         return wait.until(ExpectedConditions.textToBePresentInElementLocated(by, expectedText));
-      } catch (StaleElementReferenceException e) {
-         return false;
-      }
+      return timedCheck(strElement, () -> {
+         try {
+            By by = byLocator(strElement);
+            wait = getWait();
+            return wait.until(ExpectedConditions.textToBePresentInElementLocated(by, expectedText));
+         } catch (StaleElementReferenceException e) {
+            return false;
+         }
+      });
+   }
+
+   /**
+    * This method waits for a DOM condition on the elements matching a locator,
+    * e.g. text to appear or an element to be removed. The browser reports back
+    * as soon as the page changes so that the condition holds, rather than the
+    * condition being polled.
+    * 
+    * @param strElement This is the string type and locator separated by :: used to
+    *                   find the elements
+    * @param condition  The condition to wait for
+    * @param timeout    How long to wait
+    * @return true if the condition holds, false if the wait timed out
+    */
+   public boolean waitForDomCondition(String strElement, DomCondition condition, Timeout timeout) {
+      return timedCheck(strElement,
+            () -> MutationWait.until(getDriver(), strElement, condition, timeout.getDuration()));
    }
 
    /**
@@ -1019,22 +1427,15 @@ public class BasePageClass {
     * @param maxAttempts   max attempts
     */
    public void waitForTextContainsWithRefresh(String statusLocator, String expectedText, int maxAttempts) {
-      setWait(new WebDriverWait(getDriver(), Duration.ofSeconds(10)));
+      // A plain CSS selector is accepted as well as a string locator
+      String strElement = statusLocator.contains("::") ? statusLocator : "css::" + statusLocator;
 
       for (int attempt = 1; attempt <= maxAttempts; attempt++) {
-         try {
-            WebElement statusElement = wait
-                  .until(ExpectedConditions.presenceOfElementLocated(By.cssSelector(statusLocator)));
-            boolean isTextPresent = Boolean.TRUE
-                  .equals(wait.until(ExpectedConditions.textToBePresentInElement(statusElement, expectedText)));
-
-            if (isTextPresent) {
-               return;
-            }
-
-         } catch (TimeoutException | StaleElementReferenceException e) {
-            getDriver().navigate().refresh();
+         if (waitForDomCondition(strElement, DomCondition.textContains(expectedText), Timeout.MEDIUM)) {
+            return;
          }
+         ElementCache.invalidateAll();
+         getDriver().navigate().refresh();
       }
    }
 
@@ -1044,11 +1445,14 @@ public class BasePageClass {
     * @param partialUrl The expect partial URL
     */
    public void waitForUrlTitle(String partialUrl) {
-      // Get the locator
-      setWait(new WebDriverWait(getDriver(), Duration.ofSeconds(15)));
-      getWait().until(ExpectedConditions.urlContains(partialUrl));
-      TestLoggerHolder.getLogger().info(getDriver().getCurrentUrl());
-      TestLoggerHolder.getLogger().info("");
+      timed("url contains " + partialUrl, () -> {
+         // Get the locator
+         setWait(WaitEngine.getWait());
+         getWait().until(ExpectedConditions.urlContains(partialUrl));
+         TestLoggerHolder.getLogger().info(getDriver().getCurrentUrl());
+         TestLoggerHolder.getLogger().info("");
+         return null;
+      });
    }
 
    /**
@@ -1057,19 +1461,11 @@ public class BasePageClass {
     * @param text - The expected header title
     */
    public void waitForHeaderTextTitleToContain(String text) {
-      boolean bFound = false;
-      int attempts = 0;
       // Wait up to 2 mins..
-      while (!bFound && attempts < 120) {
-         String actualHeader = getAttribute(H1OBJECT, "innerText");
-         if (!StringUtils.isBlank(actualHeader) && actualHeader.toLowerCase().contains(text.toLowerCase())) {
-            TestLoggerHolder.getLogger().info("Correct Page found");
-            bFound = true;
-         } else {
-            TestLoggerHolder.getLogger().info("{} {}", "Correct Page not found, waiting...iteration:", attempts);
-            sleep(1);
-            attempts++;
-         }
+      if (MutationWait.until(getDriver(), H1OBJECT, DomCondition.textContainsIgnoreCase(text), Duration.ofMinutes(2))) {
+         TestLoggerHolder.getLogger().info("Correct Page found");
+      } else {
+         TestLoggerHolder.getLogger().info("{} {}", "Correct Page not found after waiting for:", text);
       }
    }
 
@@ -1150,9 +1546,11 @@ public class BasePageClass {
     * @return the alert
     */
    public Alert switchToAlert() {
-      setWait(new WebDriverWait(getDriver(), Duration.ofSeconds(15)));
-      wait.until(ExpectedConditions.alertIsPresent());
-      return getDriver().switchTo().alert();
+      return timed("alert", () -> {
+         setWait(WaitEngine.getWait());
+         wait.until(ExpectedConditions.alertIsPresent());
+         return getDriver().switchTo().alert();
+      });
    }
 
    /***************************************************************************/
@@ -1178,16 +1576,9 @@ public class BasePageClass {
     * @param strElement- The id of the element to click
     */
    public void jsClickElement(String strElement) {
-      try {
-         WebElement element = waitForElementToBeClickable(strElement);
-         ((JavascriptExecutor) getDriver()).executeScript(ARGUMENTS_0_CLICK, element);
-         waitForJavascriptToComplete();
-      } catch (StaleElementReferenceException e) {
-         TestLoggerHolder.getLogger().info(STALE_ELEMENT_EXCEPTION_MESSAGE);
-         WebElement element = waitForElementToBeClickable(strElement);
-         ((JavascriptExecutor) getDriver()).executeScript(ARGUMENTS_0_CLICK, element);
-         waitForJavascriptToComplete();
-      }
+      withRetry(strElement, () -> ((JavascriptExecutor) getDriver()).executeScript(ARGUMENTS_0_CLICK,
+            waitForElementToBeClickable(strElement)));
+      waitForJavascriptToComplete();
    }
 
    /**
@@ -1196,14 +1587,9 @@ public class BasePageClass {
     * @param element- The element to click
     */
    public void jsClickElement(WebElement element) {
-      try {
-         ((JavascriptExecutor) getDriver()).executeScript(ARGUMENTS_0_CLICK, element);
-         waitForJavascriptToComplete();
-      } catch (StaleElementReferenceException e) {
-         TestLoggerHolder.getLogger().info(STALE_ELEMENT_EXCEPTION_MESSAGE);
-         ((JavascriptExecutor) getDriver()).executeScript(ARGUMENTS_0_CLICK, element);
-         waitForJavascriptToComplete();
-      }
+      // A stale element cannot be found again, so there is nothing to retry
+      ((JavascriptExecutor) getDriver()).executeScript(ARGUMENTS_0_CLICK, element);
+      waitForJavascriptToComplete();
    }
 
    /**
@@ -1264,11 +1650,11 @@ public class BasePageClass {
    }
 
    /**
-    * This method waits for the javascript to to be complete
+    * This method waits for the page to be ready: loaded, with no AngularJS
+    * requests pending, no animations running and (on Chrome and Edge) no network
+    * requests for networkIdleMillis, see {@link PageQuiescence}
     */
    public void waitForJavascriptToComplete() {
-      setWait(new WebDriverWait(getDriver(), Duration.ofSeconds(15)));
-      wait.until((ExpectedCondition<Boolean>) driverNew -> ((JavascriptExecutor) getDriver())
-            .executeScript("return document.readyState").equals("complete"));
+      PageQuiescence.waitForPage(getDriver(), Timeout.DEFAULT);
    }
 }
@@ -31,6 +31,44 @@ public class BaseTestConfiguration {
    private static int maxLocalInstances;
    private static BaseObjectManager pageObjectManager;
 
+   // driver lifecycle
+   private static boolean driverPool;
+   private static int driverPoolSize;
+   private static int driverPoolMaxUses = 25;
+   private static int driverStandbyDepth;
+   private static int sessionHealthCheckTtlSeconds = 30;
+   private static List<String> gridUrls = new ArrayList<>();
+   private static String networkProfile = "NONE";
+   private static List<String> networkBlockedHosts = new ArrayList<>();
+   private static boolean chromeProfileTemplate;
+   private static String chromeProfileWarmUrl = "";
+   private static boolean multiContext;
+   private static String driverScope = "SCENARIO";
+   private static int browserMemoryBudgetMb;
+   private static int memoryWatchdogIntervalSeconds = 10;
+
+   // waits
+   private static int waitTimeoutSeconds = 15;
+   private static int waitMediumTimeoutSeconds = 10;
+   private static int waitShortTimeoutSeconds = 5;
+   private static int waitProbeTimeoutMillis = 500;
+   private static int waitPollInitialMillis = 50;
+   private static int waitPollMaxMillis = 500;
+   private static int networkIdleMillis = 500;
+   private static String appBusySelector = ".ng-animate, .md-ripple-active";
+   private static int retryMaxAttempts = 4;
+   private static int retryBackoffMillis = 100;
+   private static int retryBudgetPerScenario = 30;
+
+   // screenshots
+   private static String screenshotFormat = "PNG";
+   private static int screenshotQuality = 80;
+   private static int screenshotMaxHeight = 15000;
+   private static int screenshotWorkers = 2;
+   private static int screenshotQueueSize = 8;
+   private static String screenshotPolicy = "ALWAYS";
+   private static int screenshotEveryNth = 5;
+
    /** the Products API page **/
    public static String getProductsAPI;
 
@@ -116,6 +154,12 @@ public class BaseTestConfiguration {
 
       getMaxLocalInstancesFromPropertyFileMaven(properties);
 
+      getDriverLifecycleFromPropertyFileMaven(properties);
+
+      getWaitsFromPropertyFileMaven(properties);
+
+      getScreenshotsFromPropertyFileMaven(properties);
+
       // Logging the environment variables used in the current test run
       TestLoggerHolder.getLogger().info(
             String.format("Environment (env)                                     Variable Setting: %s", getEnv()));
@@ -125,6 +169,168 @@ public class BaseTestConfiguration {
             .format("Browser                                               Variable Setting: %s", getBrowser()));
       TestLoggerHolder.getLogger().info(String
             .format("Tags                                                  Variable Setting: %s", getTagValue()));
+      TestLoggerHolder.getLogger().info(String.format(
+            "Driver Pool (size / max uses)                         Variable Setting: %s (%s / %s)", isDriverPool(),
+            getDriverPoolSize(), getDriverPoolMaxUses()));
+      TestLoggerHolder.getLogger().info(String.format(
+            "Driver Standby Depth                                  Variable Setting: %s", getDriverStandbyDepth()));
+      TestLoggerHolder.getLogger().info(String.format(
+            "Session Health Check TTL (seconds)                    Variable Setting: %s",
+            getSessionHealthCheckTtlSeconds()));
+      TestLoggerHolder.getLogger().info(String.format(
+            "Grid URLs                                             Variable Setting: %s",
+            getGridUrls().isEmpty() ? "local browsers" : getGridUrls()));
+      TestLoggerHolder.getLogger().info(String.format(
+            "Network Profile (extra blocked hosts)                 Variable Setting: %s %s", getNetworkProfile(),
+            getNetworkBlockedHosts()));
+      TestLoggerHolder.getLogger().info(String.format(
+            "Chrome Profile Template (warm URL)                    Variable Setting: %s (%s)",
+            isChromeProfileTemplate(), getChromeProfileWarmUrl()));
+      TestLoggerHolder.getLogger().info(String
+            .format("Multi Context (shared Chrome)                         Variable Setting: %s", isMultiContext()));
+      TestLoggerHolder.getLogger().info(String
+            .format("Driver Scope                                          Variable Setting: %s", getDriverScope()));
+      TestLoggerHolder.getLogger().info(String.format(
+            "Browser Memory Budget MB (watchdog interval)          Variable Setting: %s (%ss)",
+            getBrowserMemoryBudgetMb(), getMemoryWatchdogIntervalSeconds()));
+      TestLoggerHolder.getLogger().info(String.format(
+            "Waits (default / medium / short s, probe ms)          Variable Setting: %s / %s / %s / %s",
+            getWaitTimeoutSeconds(), getWaitMediumTimeoutSeconds(), getWaitShortTimeoutSeconds(),
+            getWaitProbeTimeoutMillis()));
+      TestLoggerHolder.getLogger().info(String.format(
+            "Wait Polling (initial / max ms)                       Variable Setting: %s / %s",
+            getWaitPollInitialMillis(), getWaitPollMaxMillis()));
+      TestLoggerHolder.getLogger().info(String.format(
+            "Page Ready (network idle ms, app busy selector)       Variable Setting: %s (%s)",
+            getNetworkIdleMillis(), getAppBusySelector()));
+      TestLoggerHolder.getLogger().info(String.format(
+            "Retries (attempts / backoff ms / scenario budget)     Variable Setting: %s / %s / %s",
+            getRetryMaxAttempts(), getRetryBackoffMillis(), getRetryBudgetPerScenario()));
+      TestLoggerHolder.getLogger().info(String.format(
+            "Screenshots (format / quality / max height px)        Variable Setting: %s / %s / %s",
+            getScreenshotFormat(), getScreenshotQuality(), getScreenshotMaxHeight()));
+      TestLoggerHolder.getLogger().info(String.format(
+            "Screenshot Writers (workers / queue size)             Variable Setting: %s / %s",
+            getScreenshotWorkers(), getScreenshotQueueSize()));
+      TestLoggerHolder.getLogger().info(String.format(
+            "Screenshot Policy (policy / every nth)                Variable Setting: %s / %s",
+            getScreenshotPolicy(), getScreenshotEveryNth()));
+   }
+
+   /**
+    * This method reads an optional setting. Maven (-D) takes precedence over the
+    * config file and the default is used when neither supplies a value (or the
+    * config file still holds its {{placeholder}}).
+    *
+    * @param properties   The run properties
+    * @param key          The property key
+    * @param defaultValue The value to use when the setting is not supplied
+    * @return The setting value
+    */
+   private static String getOptionalProperty(Properties properties, String key, String defaultValue) {
+      String value = System.getProperty(key, properties.getProperty(key));
+      if (value == null || value.trim().isEmpty() || value.trim().startsWith("{{")) {
+         return defaultValue;
+      }
+      return value.trim();
+   }
+
+   /**
+    * This method reads an optional comma separated setting
+    *
+    * @param properties The run properties
+    * @param key        The property key
+    * @return The trimmed, non blank values (empty when not supplied)
+    */
+   private static List<String> getOptionalListProperty(Properties properties, String key) {
+      List<String> values = new ArrayList<>();
+      for (String value : getOptionalProperty(properties, key, "").split(",")) {
+         if (!value.isBlank()) {
+            values.add(value.trim());
+         }
+      }
+      return values;
+   }
+
+   /**
+    * This method gets the driver lifecycle settings to use from Maven or the config
+    * file
+    *
+    * @param properties
+    */
+   private static void getDriverLifecycleFromPropertyFileMaven(Properties properties) {
+      driverPool = Boolean.parseBoolean(getOptionalProperty(properties, IConstants.DRIVER_POOL, IConstants.FALSE));
+      driverPoolSize = Integer.parseInt(getOptionalProperty(properties, IConstants.DRIVER_POOL_SIZE,
+            String.valueOf(Math.max(1, maxLocalInstances))));
+      driverPoolMaxUses = Integer
+            .parseInt(getOptionalProperty(properties, IConstants.DRIVER_POOL_MAX_USES, String.valueOf(25)));
+      driverStandbyDepth = Integer
+            .parseInt(getOptionalProperty(properties, IConstants.DRIVER_STANDBY_DEPTH, String.valueOf(0)));
+      sessionHealthCheckTtlSeconds = Integer.parseInt(
+            getOptionalProperty(properties, IConstants.SESSION_HEALTH_CHECK_TTL_SECONDS, String.valueOf(30)));
+      gridUrls = getOptionalListProperty(properties, IConstants.GRID_URLS);
+      networkProfile = getOptionalProperty(properties, IConstants.NETWORK_PROFILE, "NONE").toUpperCase();
+      networkBlockedHosts = getOptionalListProperty(properties, IConstants.NETWORK_BLOCKED_HOSTS);
+      chromeProfileTemplate = Boolean
+            .parseBoolean(getOptionalProperty(properties, IConstants.CHROME_PROFILE_TEMPLATE, IConstants.FALSE));
+      chromeProfileWarmUrl = getOptionalProperty(properties, IConstants.CHROME_PROFILE_WARM_URL, "");
+      multiContext = Boolean.parseBoolean(getOptionalProperty(properties, IConstants.MULTI_CONTEXT, IConstants.FALSE));
+      driverScope = getOptionalProperty(properties, IConstants.DRIVER_SCOPE, "SCENARIO").toUpperCase();
+      browserMemoryBudgetMb = Integer
+            .parseInt(getOptionalProperty(properties, IConstants.BROWSER_MEMORY_BUDGET_MB, String.valueOf(0)));
+      memoryWatchdogIntervalSeconds = Integer.parseInt(
+            getOptionalProperty(properties, IConstants.MEMORY_WATCHDOG_INTERVAL_SECONDS, String.valueOf(10)));
+   }
+
+   /**
+    * This method gets the report screenshot settings to use from Maven or the
+    * config file
+    *
+    * @param properties
+    */
+   private static void getScreenshotsFromPropertyFileMaven(Properties properties) {
+      screenshotFormat = getOptionalProperty(properties, IConstants.SCREENSHOT_FORMAT, "PNG").toUpperCase();
+      screenshotQuality = Integer
+            .parseInt(getOptionalProperty(properties, IConstants.SCREENSHOT_QUALITY, String.valueOf(80)));
+      screenshotMaxHeight = Integer
+            .parseInt(getOptionalProperty(properties, IConstants.SCREENSHOT_MAX_HEIGHT, String.valueOf(15000)));
+      screenshotWorkers = Integer
+            .parseInt(getOptionalProperty(properties, IConstants.SCREENSHOT_WORKERS, String.valueOf(2)));
+      screenshotQueueSize = Integer
+            .parseInt(getOptionalProperty(properties, IConstants.SCREENSHOT_QUEUE_SIZE, String.valueOf(8)));
+      screenshotPolicy = getOptionalProperty(properties, IConstants.SCREENSHOT_POLICY, "ALWAYS").toUpperCase();
+      screenshotEveryNth = Integer
+            .parseInt(getOptionalProperty(properties, IConstants.SCREENSHOT_EVERY_NTH, String.valueOf(5)));
+   }
+
+   /**
+    * This method gets the page object wait settings to use from Maven or the
+    * config file
+    *
+    * @param properties
+    */
+   private static void getWaitsFromPropertyFileMaven(Properties properties) {
+      waitTimeoutSeconds = Integer
+            .parseInt(getOptionalProperty(properties, IConstants.WAIT_TIMEOUT_SECONDS, String.valueOf(15)));
+      waitMediumTimeoutSeconds = Integer
+            .parseInt(getOptionalProperty(properties, IConstants.WAIT_MEDIUM_TIMEOUT_SECONDS, String.valueOf(10)));
+      waitShortTimeoutSeconds = Integer
+            .parseInt(getOptionalProperty(properties, IConstants.WAIT_SHORT_TIMEOUT_SECONDS, String.valueOf(5)));
+      waitProbeTimeoutMillis = Integer
+            .parseInt(getOptionalProperty(properties, IConstants.WAIT_PROBE_TIMEOUT_MILLIS, String.valueOf(500)));
+      waitPollInitialMillis = Integer
+            .parseInt(getOptionalProperty(properties, IConstants.WAIT_POLL_INITIAL_MILLIS, String.valueOf(50)));
+      waitPollMaxMillis = Integer
+            .parseInt(getOptionalProperty(properties, IConstants.WAIT_POLL_MAX_MILLIS, String.valueOf(500)));
+      networkIdleMillis = Integer
+            .parseInt(getOptionalProperty(properties, IConstants.NETWORK_IDLE_MILLIS, String.valueOf(500)));
+      appBusySelector = getOptionalProperty(properties, IConstants.APP_BUSY_SELECTOR, appBusySelector);
+      retryMaxAttempts = Integer
+            .parseInt(getOptionalProperty(properties, IConstants.RETRY_MAX_ATTEMPTS, String.valueOf(4)));
+      retryBackoffMillis = Integer
+            .parseInt(getOptionalProperty(properties, IConstants.RETRY_BACKOFF_MILLIS, String.valueOf(100)));
+      retryBudgetPerScenario = Integer
+            .parseInt(getOptionalProperty(properties, IConstants.RETRY_BUDGET_PER_SCENARIO, String.valueOf(30)));
    }
 
    /**
@@ -499,6 +705,310 @@ public class BaseTestConfiguration {
       return maxLocalInstances;
    }
 
+   /**
+    * This gets whether browsers are pooled and recycled between scenarios
+    *
+    * @return true if the driver pool is enabled
+    */
+   public static boolean isDriverPool() {
+      return driverPool;
+   }
+
+   /**
+    * This gets the maximum number of idle browsers kept in the driver pool
+    *
+    * @return driverPoolSize value to use
+    */
+   public static int getDriverPoolSize() {
+      return Math.max(1, driverPoolSize);
+   }
+
+   /**
+    * This gets the number of scenarios a pooled browser serves before it is
+    * replaced
+    *
+    * @return driverPoolMaxUses value to use
+    */
+   public static int getDriverPoolMaxUses() {
+      return Math.max(1, driverPoolMaxUses);
+   }
+
+   /**
+    * This gets the number of browsers to keep launched in the background ready
+    * for the next scenario (0 disables pre-spawning)
+    *
+    * @return driverStandbyDepth value to use
+    */
+   public static int getDriverStandbyDepth() {
+      return Math.max(0, driverStandbyDepth);
+   }
+
+   /**
+    * This gets how long a browser session is trusted before the next lookup
+    * probes it again (0 means only probe after a failure)
+    *
+    * @return sessionHealthCheckTtlSeconds value to use
+    */
+   public static int getSessionHealthCheckTtlSeconds() {
+      return Math.max(0, sessionHealthCheckTtlSeconds);
+   }
+
+   /**
+    * This gets the Selenium Grid / standalone server URLs to run remote sessions
+    * on. An empty list means browsers are launched locally.
+    *
+    * @return the grid URLs
+    */
+   public static List<String> getGridUrls() {
+      return gridUrls;
+   }
+
+   /**
+    * This gets the network shaping profile applied to @Web scenarios without a
+    * {@code @Network:<profile>} tag
+    *
+    * @return networkProfile value to use
+    */
+   public static String getNetworkProfile() {
+      return networkProfile;
+   }
+
+   /**
+    * This gets the extra hosts blocked by the network profiles that block third
+    * party hosts
+    *
+    * @return the extra blocked hosts
+    */
+   public static List<String> getNetworkBlockedHosts() {
+      return networkBlockedHosts;
+   }
+
+   /**
+    * This gets whether Chrome sessions start on a copy of a warmed profile
+    * template instead of a new temporary profile
+    *
+    * @return true if the profile template is enabled
+    */
+   public static boolean isChromeProfileTemplate() {
+      return chromeProfileTemplate;
+   }
+
+   /**
+    * This gets the page the Chrome profile template visits so its static assets
+    * are cached (empty means none)
+    *
+    * @return chromeProfileWarmUrl value to use
+    */
+   public static String getChromeProfileWarmUrl() {
+      return chromeProfileWarmUrl;
+   }
+
+   /**
+    * This gets whether Chrome scenarios share one browser process, each in its
+    * own browser context
+    *
+    * @return true if multi context mode is enabled
+    */
+   public static boolean isMultiContext() {
+      return multiContext;
+   }
+
+   /**
+    * This gets how long a browser is kept: SCENARIO, FEATURE, THREAD or RUN
+    *
+    * @return driverScope value to use
+    */
+   public static String getDriverScope() {
+      return driverScope;
+   }
+
+   /**
+    * This gets the resident memory in MB a browser session's processes may use
+    * before the session is replaced between scenarios (0 means no limit)
+    *
+    * @return browserMemoryBudgetMb value to use
+    */
+   public static int getBrowserMemoryBudgetMb() {
+      return browserMemoryBudgetMb;
+   }
+
+   /**
+    * This gets how often the memory watchdog samples the browser processes
+    *
+    * @return memoryWatchdogIntervalSeconds value to use
+    */
+   public static int getMemoryWatchdogIntervalSeconds() {
+      return memoryWatchdogIntervalSeconds;
+   }
+
+   /**
+    * This gets how long page object waits for element actions and page changes
+    *
+    * @return waitTimeoutSeconds value to use
+    */
+   public static int getWaitTimeoutSeconds() {
+      return waitTimeoutSeconds;
+   }
+
+   /**
+    * This gets how long page object waits for menus and uploads
+    *
+    * @return waitMediumTimeoutSeconds value to use
+    */
+   public static int getWaitMediumTimeoutSeconds() {
+      return waitMediumTimeoutSeconds;
+   }
+
+   /**
+    * This gets how long page object waits for checks expected to pass quickly
+    *
+    * @return waitShortTimeoutSeconds value to use
+    */
+   public static int getWaitShortTimeoutSeconds() {
+      return waitShortTimeoutSeconds;
+   }
+
+   /**
+    * This gets how long page object waits for something that is usually absent
+    *
+    * @return waitProbeTimeoutMillis value to use
+    */
+   public static int getWaitProbeTimeoutMillis() {
+      return waitProbeTimeoutMillis;
+   }
+
+   /**
+    * This gets the gap before the first re-check of a wait condition
+    *
+    * @return waitPollInitialMillis value to use
+    */
+   public static int getWaitPollInitialMillis() {
+      return waitPollInitialMillis;
+   }
+
+   /**
+    * This gets the largest gap between re-checks of a wait condition
+    *
+    * @return waitPollMaxMillis value to use
+    */
+   public static int getWaitPollMaxMillis() {
+      return waitPollMaxMillis;
+   }
+
+   /**
+    * This gets how long the browser must make no network requests for a page to
+    * count as ready
+    *
+    * @return networkIdleMillis value to use
+    */
+   public static int getNetworkIdleMillis() {
+      return networkIdleMillis;
+   }
+
+   /**
+    * This gets the CSS selector of elements that show the application is still
+    * busy, e.g. animating
+    *
+    * @return appBusySelector value to use
+    */
+   public static String getAppBusySelector() {
+      return appBusySelector;
+   }
+
+   /**
+    * This gets how many times a page object action is tried before its failure
+    * is reported
+    *
+    * @return retryMaxAttempts value to use
+    */
+   public static int getRetryMaxAttempts() {
+      return retryMaxAttempts;
+   }
+
+   /**
+    * This gets the pause before the first retry of a page object action
+    *
+    * @return retryBackoffMillis value to use
+    */
+   public static int getRetryBackoffMillis() {
+      return retryBackoffMillis;
+   }
+
+   /**
+    * This gets how many retries a scenario may make before failures are reported
+    * straight away
+    *
+    * @return retryBudgetPerScenario value to use
+    */
+   public static int getRetryBudgetPerScenario() {
+      return retryBudgetPerScenario;
+   }
+
+   /**
+    * This gets the image format of the report screenshots (PNG, JPEG or WEBP)
+    *
+    * @return screenshotFormat value to use
+    */
+   public static String getScreenshotFormat() {
+      return screenshotFormat;
+   }
+
+   /**
+    * This gets the quality (0-100) of JPEG and WEBP report screenshots
+    *
+    * @return screenshotQuality value to use
+    */
+   public static int getScreenshotQuality() {
+      return screenshotQuality;
+   }
+
+   /**
+    * This gets the tallest a full page report screenshot may be, in CSS pixels
+    *
+    * @return screenshotMaxHeight value to use
+    */
+   public static int getScreenshotMaxHeight() {
+      return screenshotMaxHeight;
+   }
+
+   /**
+    * This gets how many background threads write the report screenshots
+    *
+    * @return screenshotWorkers value to use
+    */
+   public static int getScreenshotWorkers() {
+      return screenshotWorkers;
+   }
+
+   /**
+    * This gets how many screenshots may wait to be written before the test
+    * threads write their own
+    *
+    * @return screenshotQueueSize value to use
+    */
+   public static int getScreenshotQueueSize() {
+      return screenshotQueueSize;
+   }
+
+   /**
+    * This gets which step screenshots are kept (ALWAYS, FAILURE_ONLY, ON_CHANGE
+    * or EVERY_NTH)
+    *
+    * @return screenshotPolicy value to use
+    */
+   public static String getScreenshotPolicy() {
+      return screenshotPolicy;
+   }
+
+   /**
+    * This gets how often a step screenshot is taken with the EVERY_NTH policy
+    *
+    * @return screenshotEveryNth value to use
+    */
+   public static int getScreenshotEveryNth() {
+      return screenshotEveryNth;
+   }
+
    /**
     * getter for report username
     * 
@@ -0,0 +1,261 @@
+package utils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+/**
+ * Limits the number of live browsers per browser type to
+ * {@link BaseTestConfiguration#getMaxLocalInstances()}.
+ * <p>
+ * Every live browser holds a slot. A scenario thread holds the slot of the
+ * browser it is using, while an idle browser in the {@link DriverPool} or a
+ * launched one in the {@link DriverProvisioner} standby queue holds its own
+ * (the slot is parked on the browser). A parked slot moves to the scenario
+ * thread that takes the browser, and is given back when the browser is quit.
+ * A new browser is only launched once a slot is free; standby launches never
+ * wait for one. Waiting threads are served roughly in arrival order and take
+ * a parked browser as soon as one is available. Scenarios that never ask for a
+ * driver (API only, no {@code @Web} tag) never take a slot. A value of 0 or
+ * less for maxLocalInstances disables the limit.
+ */
+public class BrowserSlotScheduler {
+
+   /**
+    * Constructor required for Sonar
+    */
+   private BrowserSlotScheduler() {
+      throw new IllegalStateException("Utility class");
+   }
+
+   /** How often a waiting thread looks for a parked browser */
+   private static final long POLL_MILLIS = 250;
+
+   private static final Map<String, Semaphore> slots = new ConcurrentHashMap<>();
+   private static final ThreadLocal<String> heldSlot = new ThreadLocal<>();
+   private static final ThreadLocal<Long> lastWaitMillis = new ThreadLocal<>();
+   /** Idle and standby browsers to the browser type of the slot parked on them */
+   private static final Map<RemoteWebDriver, String> parkedSlots = new ConcurrentHashMap<>();
+
+   // Statistics
+   private static long acquisitions;
+   private static long queuedAcquisitions;
+   private static long totalWaitMillis;
+   private static long maxWaitMillis;
+   private static int inUse;
+   private static int peakInUse;
+   private static long busySlotMillis;
+   private static long firstAcquireMillis;
+   private static long lastChangeMillis;
+
+   /**
+    * Gets a browser slot for the current thread: either a parked browser, which
+    * brings its slot with it, or a free slot to launch a new browser in, waiting
+    * in turn if there is neither. Does not wait if the thread already holds a
+    * slot or the limit is disabled.
+    *
+    * @param browser the browser type the slot is for
+    * @param parked  takes an idle or standby browser, or returns null if there is
+    *                none. Called again while waiting.
+    * @return the parked browser taken, or null if a new browser is to be launched
+    */
+   public static RemoteWebDriver acquire(String browser, Supplier<RemoteWebDriver> parked) {
+      int capacity = BaseTestConfiguration.getMaxLocalInstances();
+      if (capacity <= 0 || heldSlot.get() != null) {
+         return claim(parked.get());
+      }
+
+      String key = browser.toUpperCase();
+      Semaphore semaphore = getSemaphore(key, capacity);
+      long start = System.currentTimeMillis();
+      boolean queued = false;
+      RemoteWebDriver driver;
+      try {
+         while ((driver = claim(parked.get())) == null
+               && !semaphore.tryAcquire(queued ? POLL_MILLIS : 0, TimeUnit.MILLISECONDS)) {
+            if (!queued) {
+               TestLoggerHolder.getLogger().info("{} {}", "⏳ All browser slots in use, waiting for a free slot for:",
+                     key);
+               queued = true;
+            }
+         }
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new IllegalStateException("Interrupted while waiting for a " + key + " browser slot", e);
+      }
+      if (driver == null) {
+         heldSlot.set(key);
+         recordSlotTaken();
+      }
+      long waited = System.currentTimeMillis() - start;
+      lastWaitMillis.set(waited);
+      recordAcquire(queued, waited);
+      if (queued) {
+         TestLoggerHolder.getLogger().info("{} {}", "Browser slot acquired after waiting (ms):", waited);
+      }
+      return driver;
+   }
+
+   /**
+    * Takes a slot for a background (standby) launch without waiting. The slot is
+    * held by the current thread until the browser is parked.
+    *
+    * @param browser the browser type the slot is for
+    * @return true if a slot was free or the limit is disabled
+    */
+   public static boolean tryAcquire(String browser) {
+      int capacity = BaseTestConfiguration.getMaxLocalInstances();
+      if (capacity <= 0 || heldSlot.get() != null) {
+         return true;
+      }
+      String key = browser.toUpperCase();
+      if (!getSemaphore(key, capacity).tryAcquire()) {
+         return false;
+      }
+      heldSlot.set(key);
+      recordSlotTaken();
+      return true;
+   }
+
+   /**
+    * Moves the current thread's slot onto a browser going idle (back to the pool
+    * or into the standby queue), so that the browser keeps holding it
+    *
+    * @param driver the browser
+    */
+   public static void park(RemoteWebDriver driver) {
+      String key = heldSlot.get();
+      if (key != null) {
+         heldSlot.remove();
+         lastWaitMillis.remove();
+         parkedSlots.put(driver, key);
+      }
+   }
+
+   /**
+    * Gives the current thread's browser slot back, if it holds one
+    */
+   public static void release() {
+      String key = heldSlot.get();
+      if (key == null) {
+         return;
+      }
+      heldSlot.remove();
+      lastWaitMillis.remove();
+      recordRelease();
+      slots.get(key).release();
+   }
+
+   /**
+    * Gives the slot parked on a browser back, if it has one. Called when a
+    * browser is quit.
+    *
+    * @param driver the browser
+    */
+   public static void release(RemoteWebDriver driver) {
+      String key = parkedSlots.remove(driver);
+      if (key != null) {
+         recordRelease();
+         slots.get(key).release();
+      }
+   }
+
+   /**
+    * Gets how long the current thread waited for its most recent slot
+    *
+    * @return the wait time in milliseconds
+    */
+   public static long getLastWaitMillis() {
+      Long waited = lastWaitMillis.get();
+      return waited == null ? 0 : waited;
+   }
+
+   /**
+    * Gets a one line summary of slot waits and utilisation over the run
+    *
+    * @return the summary
+    */
+   public static synchronized String getSummary() {
+      int capacity = BaseTestConfiguration.getMaxLocalInstances();
+      if (capacity <= 0 || acquisitions == 0) {
+         return "Browser slots: not limited";
+      }
+      long now = System.currentTimeMillis();
+      long busy = busySlotMillis + (long) inUse * (now - lastChangeMillis);
+      long available = (long) capacity * Math.max(1, now - firstAcquireMillis);
+      return String.format(
+            "Browser slots: capacity %d per browser, %d acquired, %d queued, wait avg %d ms / max %d ms, "
+                  + "peak live browsers %d, utilisation %.0f%%",
+            capacity, acquisitions, queuedAcquisitions, totalWaitMillis / acquisitions, maxWaitMillis, peakInUse,
+            100.0 * busy / available);
+   }
+
+   /**
+    * Moves the slot parked on a browser to the current thread
+    *
+    * @param driver the browser taken, or null
+    * @return the browser
+    */
+   private static RemoteWebDriver claim(RemoteWebDriver driver) {
+      String key = driver == null ? null : parkedSlots.remove(driver);
+      if (key != null) {
+         heldSlot.set(key);
+      }
+      return driver;
+   }
+
+   /**
+    * Gets the slots of a browser type
+    *
+    * @param key      the browser type
+    * @param capacity the number of slots
+    * @return the slots
+    */
+   private static Semaphore getSemaphore(String key, int capacity) {
+      return slots.computeIfAbsent(key, k -> new Semaphore(capacity, true));
+   }
+
+   /**
+    * Updates the utilisation when a slot is taken for a new browser
+    */
+   private static synchronized void recordSlotTaken() {
+      long now = System.currentTimeMillis();
+      if (firstAcquireMillis == 0) {
+         firstAcquireMillis = now;
+         lastChangeMillis = now;
+      }
+      busySlotMillis += (long) inUse * (now - lastChangeMillis);
+      lastChangeMillis = now;
+      inUse++;
+      peakInUse = Math.max(peakInUse, inUse);
+   }
+
+   /**
+    * Updates the statistics when a scenario thread gets its slot
+    *
+    * @param queued true if the thread had to wait
+    * @param waited how long the thread waited in milliseconds
+    */
+   private static synchronized void recordAcquire(boolean queued, long waited) {
+      acquisitions++;
+      if (queued) {
+         queuedAcquisitions++;
+      }
+      totalWaitMillis += waited;
+      maxWaitMillis = Math.max(maxWaitMillis, waited);
+   }
+
+   /**
+    * Updates the utilisation when a slot is given back
+    */
+   private static synchronized void recordRelease() {
+      long now = System.currentTimeMillis();
+      busySlotMillis += (long) inUse * (now - lastChangeMillis);
+      lastChangeMillis = now;
+      inUse--;
+   }
+}
@@ -0,0 +1,230 @@
+package utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the installed browser versions so that the version is detected
+ * (by spawning {@code --version} shells or {@code reg query} processes) once
+ * per browser install rather than on every driver set up.
+ * <p>
+ * A version is resolved once per JVM and persisted next to the
+ * {@link DriverBinaryCache} together with the browser binary's size and
+ * modification time. Later JVMs reuse the persisted version until the browser
+ * binary changes (e.g. the browser is updated). When the browser binary cannot
+ * be located the version is still detected only once per JVM, but is not
+ * persisted.
+ */
+public class BrowserVersionCache {
+
+   /**
+    * Constructor required for Sonar
+    */
+   private BrowserVersionCache() {
+      throw new IllegalStateException("Utility class");
+   }
+
+   private static final String VERSION = "version";
+   private static final String BINARY = "binary";
+   private static final String SIZE = "size";
+   private static final String MODIFIED = "modified";
+
+   private static final Map<String, String> versions = new ConcurrentHashMap<>();
+   /** How each browser version was resolved and how long it took */
+   private static final Map<String, String> resolutions = new ConcurrentHashMap<>();
+
+   /**
+    * Gets the installed version of the browser, only calling the detector when
+    * no valid remembered version exists
+    *
+    * @param browser  the browser name
+    * @param detector detects the version from the installed browser
+    * @return the browser version
+    */
+   public static String get(String browser, Supplier<String> detector) {
+      return versions.computeIfAbsent(browser, b -> resolve(b, detector));
+   }
+
+   /**
+    * Resolves the browser version from the persisted file, or the detector if the
+    * browser binary has changed since it was persisted
+    *
+    * @param browser  the browser name
+    * @param detector detects the version from the installed browser
+    * @return the browser version
+    */
+   private static String resolve(String browser, Supplier<String> detector) {
+      long start = System.nanoTime();
+      Path binary = locateBinary(browser);
+      Path versionFile = DriverBinaryCache.getRoot().resolve(browser + "-version.properties");
+
+      String version = binary == null ? null : readPersisted(versionFile, binary);
+      String source = "persisted";
+      if (version == null) {
+         version = detector.get();
+         source = "detected";
+         if (binary != null) {
+            persist(versionFile, binary, version);
+         }
+      }
+
+      long millis = (System.nanoTime() - start) / 1_000_000;
+      resolutions.put(browser, String.format("%s %s (%s in %d ms)", browser, version, source, millis));
+      TestLoggerHolder.getLogger().info("{} {}", "🔎 Browser version", resolutions.get(browser));
+      return version;
+   }
+
+   /**
+    * Reads the persisted version if it was recorded for the same, unchanged,
+    * browser binary
+    *
+    * @param versionFile the persisted version file
+    * @param binary      the browser binary
+    * @return the version, or null if there is none or it is out of date
+    */
+   private static String readPersisted(Path versionFile, Path binary) {
+      if (!Files.isRegularFile(versionFile)) {
+         return null;
+      }
+      try (InputStream in = Files.newInputStream(versionFile)) {
+         Properties persisted = new Properties();
+         persisted.load(in);
+         BasicFileAttributes attributes = Files.readAttributes(binary, BasicFileAttributes.class);
+         if (binary.toString().equals(persisted.getProperty(BINARY))
+               && String.valueOf(attributes.size()).equals(persisted.getProperty(SIZE))
+               && String.valueOf(attributes.lastModifiedTime().toMillis()).equals(persisted.getProperty(MODIFIED))) {
+            return persisted.getProperty(VERSION);
+         }
+      } catch (IOException | RuntimeException e) {
+         TestLoggerHolder.getLogger().warn("Browser version file unreadable: " + versionFile + " " + e.getMessage());
+      }
+      return null;
+   }
+
+   /**
+    * Persists the version against the browser binary's size and modification
+    * time. The file is written to a temporary file and moved into place so other
+    * processes never read a partial file.
+    *
+    * @param versionFile the persisted version file
+    * @param binary      the browser binary
+    * @param version     the detected version
+    */
+   private static void persist(Path versionFile, Path binary, String version) {
+      Path tempFile = versionFile.resolveSibling(versionFile.getFileName() + "." + UUID.randomUUID() + ".tmp");
+      try {
+         BasicFileAttributes attributes = Files.readAttributes(binary, BasicFileAttributes.class);
+         Properties persisted = new Properties();
+         persisted.setProperty(VERSION, version);
+         persisted.setProperty(BINARY, binary.toString());
+         persisted.setProperty(SIZE, String.valueOf(attributes.size()));
+         persisted.setProperty(MODIFIED, String.valueOf(attributes.lastModifiedTime().toMillis()));
+
+         Files.createDirectories(versionFile.getParent());
+         try (OutputStream out = Files.newOutputStream(tempFile)) {
+            persisted.store(out, "Detected browser version");
+         }
+         try {
+            Files.move(tempFile, versionFile, StandardCopyOption.ATOMIC_MOVE);
+         } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile, versionFile, StandardCopyOption.REPLACE_EXISTING);
+         }
+      } catch (IOException e) {
+         TestLoggerHolder.getLogger().warn("Browser version could not be persisted: " + e.getMessage());
+      } finally {
+         try {
+            Files.deleteIfExists(tempFile);
+         } catch (IOException e) {
+            TestLoggerHolder.getLogger().warn("Temporary version file not removed: " + tempFile);
+         }
+      }
+   }
+
+   /**
+    * Finds the installed browser binary without starting a process
+    *
+    * @param browser the browser name
+    * @return the real path of the browser binary, or null if it cannot be found
+    */
+   private static Path locateBinary(String browser) {
+      List<Path> candidates = new ArrayList<>();
+      String os = System.getProperty("os.name").toLowerCase();
+      if (os.contains("win")) {
+         String programFiles = System.getenv().getOrDefault("ProgramFiles", "C:\\Program Files");
+         String programFilesX86 = System.getenv().getOrDefault("ProgramFiles(x86)", "C:\\Program Files (x86)");
+         String localAppData = System.getenv().getOrDefault("LOCALAPPDATA", "");
+         switch (browser) {
+         case "chrome" -> {
+            candidates.add(Paths.get(programFiles, "Google", "Chrome", "Application", "chrome.exe"));
+            candidates.add(Paths.get(programFilesX86, "Google", "Chrome", "Application", "chrome.exe"));
+            if (!localAppData.isEmpty()) {
+               candidates.add(Paths.get(localAppData, "Google", "Chrome", "Application", "chrome.exe"));
+            }
+         }
+         case "edge" -> {
+            candidates.add(Paths.get(programFilesX86, "Microsoft", "Edge", "Application", "msedge.exe"));
+            candidates.add(Paths.get(programFiles, "Microsoft", "Edge", "Application", "msedge.exe"));
+         }
+         case "firefox" -> {
+            candidates.add(Paths.get(programFiles, "Mozilla Firefox", "firefox.exe"));
+            candidates.add(Paths.get(programFilesX86, "Mozilla Firefox", "firefox.exe"));
+         }
+         default -> {
+            return null;
+         }
+         }
+      } else {
+         // The same commands detectVersionShell runs, looked up on the PATH
+         String[] commands = switch (browser) {
+         case "chrome" -> new String[] { "google-chrome", "google-chrome-stable" };
+         case "firefox" -> new String[] { "firefox" };
+         case "edge" -> new String[] { "microsoft-edge", "edge" };
+         default -> new String[0];
+         };
+         for (String command : commands) {
+            for (String dir : System.getenv().getOrDefault("PATH", "").split(File.pathSeparator)) {
+               if (!dir.isEmpty()) {
+                  candidates.add(Paths.get(dir, command));
+               }
+            }
+         }
+      }
+
+      for (Path candidate : candidates) {
+         if (Files.isRegularFile(candidate)) {
+            try {
+               return candidate.toRealPath();
+            } catch (IOException e) {
+               return candidate.toAbsolutePath();
+            }
+         }
+      }
+      return null;
+   }
+
+   /**
+    * Gets a one line summary of how each browser version was resolved and what
+    * it cost at start up
+    *
+    * @return the summary
+    */
+   public static String getSummary() {
+      return resolutions.isEmpty() ? "Browser versions: none resolved"
+            : "Browser versions: " + String.join(", ", resolutions.values());
+   }
+}
@@ -0,0 +1,251 @@
+package utils;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+/**
+ * Builds a warmed Chrome {@code --user-data-dir} once per run and gives every
+ * Chrome session its own copy of it.
+ * <p>
+ * The template is created by one throwaway browser launched with the same
+ * options as the test browsers, so first run work is done, components are
+ * downloaded and (if {@code chromeProfileWarmUrl} is set) static assets are
+ * cached before the first scenario starts. Each session then gets a copy of the
+ * template, which keeps sessions isolated from each other. Component updater
+ * folders (a folder per component holding versioned sub folders) are never
+ * written to after they are installed, so they are hard linked rather than
+ * copied where the file system allows it. The copy is removed when the browser
+ * quits.
+ */
+public class ChromeProfileTemplate {
+
+   /**
+    * Constructor required for Sonar
+    */
+   private ChromeProfileTemplate() {
+      throw new IllegalStateException("Utility class");
+   }
+
+   private static final Pattern VERSION_DIR = Pattern.compile("\\d+(\\.\\d+)+(_\\d+)?");
+
+   private static final Path root = Paths.get(System.getProperty("user.dir"), "target", "chrome-profiles",
+         String.valueOf(ProcessHandle.current().pid()));
+   private static final Path template = root.resolve("template");
+   private static final Map<RemoteWebDriver, Path> sessionProfiles = new ConcurrentHashMap<>();
+   private static final AtomicInteger sessionCount = new AtomicInteger();
+
+   private static volatile boolean built;
+   private static volatile boolean failed;
+
+   /**
+    * Creates a profile folder for a new Chrome session from the template,
+    * building the template first if this is the first session of the run
+    *
+    * @param optionsFactory creates the options the test browsers use
+    * @return the session's profile folder, or null if no template could be built
+    *         (the browser then uses its usual temporary profile)
+    */
+   public static Path newSessionProfile(Supplier<ChromeOptions> optionsFactory) {
+      if (!built && !failed) {
+         buildTemplate(optionsFactory);
+      }
+      if (failed) {
+         return null;
+      }
+
+      long start = System.currentTimeMillis();
+      Path sessionProfile = root.resolve("session-" + sessionCount.incrementAndGet());
+      try {
+         copyProfile(template, sessionProfile);
+         TestLoggerHolder.getLogger().info("{} {} ms", "🧬 Chrome profile cloned from template in",
+               System.currentTimeMillis() - start);
+         return sessionProfile;
+      } catch (IOException e) {
+         TestLoggerHolder.getLogger().warn("Chrome profile could not be cloned: " + e.getMessage());
+         delete(sessionProfile);
+         return null;
+      }
+   }
+
+   /**
+    * Remembers which browser uses a session profile so that it can be removed
+    * when the browser quits
+    *
+    * @param driver         the browser
+    * @param sessionProfile the browser's profile folder
+    */
+   public static void register(RemoteWebDriver driver, Path sessionProfile) {
+      sessionProfiles.put(driver, sessionProfile);
+   }
+
+   /**
+    * Removes the profile folder of a browser that has quit
+    *
+    * @param driver the browser
+    */
+   public static void release(RemoteWebDriver driver) {
+      Path sessionProfile = driver == null ? null : sessionProfiles.remove(driver);
+      if (sessionProfile != null) {
+         delete(sessionProfile);
+      }
+   }
+
+   /**
+    * Removes a session profile that was never used, e.g. because the browser
+    * failed to start
+    *
+    * @param sessionProfile the profile folder
+    */
+   public static void discard(Path sessionProfile) {
+      delete(sessionProfile);
+   }
+
+   /**
+    * Removes this run's template and any session profiles left behind. Called
+    * when the test run finishes.
+    */
+   public static void shutdown() {
+      if (built) {
+         delete(root);
+      }
+   }
+
+   /**
+    * Launches a throwaway browser on the template folder so that Chrome does its
+    * first run work there
+    *
+    * @param optionsFactory creates the options the test browsers use
+    */
+   private static synchronized void buildTemplate(Supplier<ChromeOptions> optionsFactory) {
+      if (built || failed) {
+         return;
+      }
+      long start = System.currentTimeMillis();
+      ChromeDriver driver = null;
+      try {
+         delete(root);
+         Files.createDirectories(template);
+         ChromeOptions options = optionsFactory.get();
+         options.addArguments("--user-data-dir=" + template.toAbsolutePath());
+         options.addArguments("--no-first-run", "--no-default-browser-check");
+         driver = new ChromeDriver(options);
+         String warmUrl = BaseTestConfiguration.getChromeProfileWarmUrl();
+         driver.get(warmUrl.isEmpty() ? "about:blank" : warmUrl);
+         built = true;
+         TestLoggerHolder.getLogger().info("{} {} ms", "🧬 Chrome profile template built in",
+               System.currentTimeMillis() - start);
+      } catch (Exception e) {
+         failed = true;
+         TestLoggerHolder.getLogger()
+               .warn("Chrome profile template could not be built, using temporary profiles: " + e.getMessage());
+      } finally {
+         if (driver != null) {
+            driver.quit();
+         }
+      }
+   }
+
+   /**
+    * Copies a profile folder, hard linking the component updater folders and
+    * skipping the lock files of the browser that built it
+    *
+    * @param source the template folder
+    * @param target the session profile folder
+    * @throws IOException if the profile cannot be copied
+    */
+   private static void copyProfile(Path source, Path target) throws IOException {
+      Files.walkFileTree(source, new SimpleFileVisitor<>() {
+         private int linkedDepth = -1;
+
+         @Override
+         public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+            Files.createDirectories(target.resolve(source.relativize(dir).toString()));
+            if (linkedDepth < 0 && dir.getParent() != null && dir.getParent().equals(source) && isComponent(dir)) {
+               linkedDepth = dir.getNameCount();
+            }
+            return FileVisitResult.CONTINUE;
+         }
+
+         @Override
+         public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+            if (!attrs.isRegularFile() || file.getFileName().toString().startsWith("Singleton")) {
+               return FileVisitResult.CONTINUE;
+            }
+            Path copy = target.resolve(source.relativize(file).toString());
+            if (linkedDepth >= 0) {
+               try {
+                  Files.createLink(copy, file);
+                  return FileVisitResult.CONTINUE;
+               } catch (IOException | UnsupportedOperationException e) {
+                  // Fall back to a copy, e.g. across file systems
+               }
+            }
+            Files.copy(file, copy);
+            return FileVisitResult.CONTINUE;
+         }
+
+         @Override
+         public FileVisitResult postVisitDirectory(Path dir, IOException e) {
+            if (dir.getNameCount() == linkedDepth) {
+               linkedDepth = -1;
+            }
+            return FileVisitResult.CONTINUE;
+         }
+      });
+   }
+
+   /**
+    * Checks whether a top level profile folder is a component updater install,
+    * i.e. holds version named sub folders
+    *
+    * @param dir the folder
+    * @return true for component folders
+    */
+   private static boolean isComponent(Path dir) {
+      try (Stream<Path> children = Files.list(dir)) {
+         return children.anyMatch(
+               child -> Files.isDirectory(child) && VERSION_DIR.matcher(child.getFileName().toString()).matches());
+      } catch (IOException e) {
+         return false;
+      }
+   }
+
+   /**
+    * Deletes a folder, retrying briefly as the browser may still be releasing
+    * its files
+    *
+    * @param dir the folder
+    */
+   private static void delete(Path dir) {
+      for (int attempt = 1; attempt <= 3 && Files.exists(dir); attempt++) {
+         try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted((a, b) -> b.getNameCount() - a.getNameCount()).forEach(path -> path.toFile().delete());
+         } catch (IOException e) {
+            TestLoggerHolder.getLogger().warn("Error deleting Chrome profile " + dir + ": " + e.getMessage());
+         }
+         if (Files.exists(dir)) {
+            try {
+               Thread.sleep(200L * attempt);
+            } catch (InterruptedException e) {
+               Thread.currentThread().interrupt();
+               return;
+            }
+         }
+      }
+   }
+}
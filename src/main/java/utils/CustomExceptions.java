@@ -45,4 +45,22 @@ public class CustomExceptions {
          super(message, cause);
       }
    }
+
+   /**
+    * This class contains methods for extending RuntimeException for
+    * FormFillException's, naming the form field that could not be filled
+    */
+   public static class FormFillException extends RuntimeException {
+
+      /**
+       * Constructs a new FormFillException with the specified detail message and
+       * cause.
+       * 
+       * @param message The detail message
+       * @param cause   the cause
+       */
+      public FormFillException(String message, Throwable cause) {
+         super(message, cause);
+      }
+   }
 }
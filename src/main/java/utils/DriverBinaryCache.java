@@ -0,0 +1,308 @@
+package utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import constants.IConstants;
+
+/**
+ * A persistent cache of WebDriver binaries shared by every JVM (e.g. parallel
+ * Maven forks) on the machine.
+ * <p>
+ * Each entry lives in its own directory named after the browser, browser
+ * version and platform, next to a manifest holding the binary's SHA-256, size
+ * and modification time. The checksum is worked out once, when the entry is
+ * written. A lookup only compares the size and modification time, so a hit
+ * needs no network access and does not read the binary. The binary is hashed
+ * again only when its modification time has changed, or when the driver fails
+ * to start ({@link #checkAfterFailedLaunch(Path)}), so a truncated or corrupted
+ * binary is not used again. Each entry is looked up once per JVM. An entry that
+ * no longer matches its manifest is rebuilt.
+ * <p>
+ * Entries are built in a temporary directory and moved into place in one step
+ * while holding a {@link FileChannel#lock() file lock}, so concurrent forks
+ * never see or overwrite a half written driver.
+ * <p>
+ * The cache root is {@code drivers/cache} unless {@code -DdriverCacheDir} is
+ * supplied.
+ */
+public class DriverBinaryCache {
+
+   /**
+    * Constructor required for Sonar
+    */
+   private DriverBinaryCache() {
+      throw new IllegalStateException("Utility class");
+   }
+
+   /**
+    * Builds a cache entry by writing the driver files into the given directory
+    */
+   @FunctionalInterface
+   public interface EntryBuilder {
+
+      /**
+       * Writes the driver files into the directory
+       *
+       * @param directory an empty temporary directory
+       * @return the driver binary inside the directory
+       * @throws IOException if the driver cannot be fetched or written
+       */
+      Path build(Path directory) throws IOException;
+   }
+
+   private static final String MANIFEST = "manifest.properties";
+   private static final String BINARY = "binary";
+   private static final String SHA256 = "sha256";
+   private static final String SIZE = "size";
+   private static final String MODIFIED = "modified";
+
+   /** Entries already resolved by this JVM */
+   private static final Map<String, Path> resolved = new ConcurrentHashMap<>();
+   /** File locks are held per JVM, so threads of the same JVM queue here first */
+   private static final Map<String, ReentrantLock> jvmLocks = new ConcurrentHashMap<>();
+
+   /**
+    * Gets the cached driver binary for the browser, version and platform,
+    * building the entry first if it is missing or fails its checks
+    *
+    * @param browser  the browser name
+    * @param version  the browser version
+    * @param platform the platform identifier
+    * @param builder  writes the driver files when the entry has to be built
+    * @return the absolute path to the driver binary
+    * @throws IOException if the entry has to be built and building it fails
+    */
+   public static Path get(String browser, String version, String platform, EntryBuilder builder)
+         throws IOException {
+      String key = browser + "-" + version + "-" + platform;
+      Path cached = resolved.get(key);
+      if (cached != null) {
+         return cached;
+      }
+
+      Path entryDir = getRoot().resolve(key);
+      Path binary = lookup(entryDir);
+      if (binary == null) {
+         binary = lockAndBuild(key, entryDir, builder);
+      } else {
+         TestLoggerHolder.getLogger().info("{} {}", "📦 Driver cache hit:", binary);
+      }
+      resolved.put(key, binary);
+      return binary;
+   }
+
+   /**
+    * Gets the cache root directory
+    *
+    * @return the cache root
+    */
+   public static Path getRoot() {
+      return Paths.get(System.getProperty(IConstants.DRIVER_CACHE_DIR, "drivers/cache")).toAbsolutePath();
+   }
+
+   /**
+    * Checks a cache entry against its manifest
+    *
+    * @param entryDir the entry directory
+    * @return the driver binary, or null if the entry is missing or does not
+    *         match its manifest
+    */
+   private static Path lookup(Path entryDir) {
+      Path manifestFile = entryDir.resolve(MANIFEST);
+      if (!Files.isRegularFile(manifestFile)) {
+         return null;
+      }
+      try (InputStream in = Files.newInputStream(manifestFile)) {
+         Properties manifest = new Properties();
+         manifest.load(in);
+         Path binary = entryDir.resolve(manifest.getProperty(BINARY, ""));
+         BasicFileAttributes attributes = Files.readAttributes(binary, BasicFileAttributes.class);
+         if (attributes.size() == Long.parseLong(manifest.getProperty(SIZE, "-1"))) {
+            if (attributes.lastModifiedTime().toMillis() == Long.parseLong(manifest.getProperty(MODIFIED, "-1"))) {
+               return binary;
+            }
+            // Only touched (e.g. copied or restored) if the content is unchanged
+            if (sha256(binary).equals(manifest.getProperty(SHA256))) {
+               return binary;
+            }
+         }
+         TestLoggerHolder.getLogger().warn("Driver cache entry changed since it was written: " + entryDir);
+      } catch (IOException | RuntimeException e) {
+         TestLoggerHolder.getLogger().warn("Driver cache entry unreadable: " + entryDir + " " + e.getMessage());
+      }
+      return null;
+   }
+
+   /**
+    * Checks a cached driver binary against its checksum after it failed to
+    * start. A binary that no longer matches is dropped from the cache, so the
+    * next lookup (in this JVM or another) builds the entry again.
+    *
+    * @param binary the driver binary that failed to start
+    */
+   public static void checkAfterFailedLaunch(Path binary) {
+      Path absolute = binary.toAbsolutePath();
+      String key = resolved.entrySet().stream().filter(entry -> entry.getValue().toAbsolutePath().equals(absolute))
+            .map(Map.Entry::getKey).findFirst().orElse(null);
+      if (key == null) {
+         return; // not from the cache
+      }
+      Path manifestFile = getRoot().resolve(key).resolve(MANIFEST);
+      try (InputStream in = Files.newInputStream(manifestFile)) {
+         Properties manifest = new Properties();
+         manifest.load(in);
+         if (sha256(absolute).equals(manifest.getProperty(SHA256))) {
+            TestLoggerHolder.getLogger().info("{} {}", "📦 Cached driver matches its checksum:", absolute);
+            return;
+         }
+      } catch (IOException e) {
+         TestLoggerHolder.getLogger().warn("Cached driver could not be checked: " + absolute + " " + e.getMessage());
+      }
+      TestLoggerHolder.getLogger().warn("Cached driver does not match its checksum, it will be rebuilt: " + absolute);
+      resolved.remove(key);
+      try {
+         Files.deleteIfExists(manifestFile);
+      } catch (IOException e) {
+         TestLoggerHolder.getLogger().warn("Driver cache entry could not be dropped: " + e.getMessage());
+      }
+   }
+
+   /**
+    * Builds the entry while holding the in-JVM and cross-JVM locks for the key.
+    * Another process may have built the entry while this one waited, so the
+    * entry is checked again once the locks are held.
+    *
+    * @param key      the cache key
+    * @param entryDir the entry directory
+    * @param builder  writes the driver files
+    * @return the driver binary
+    * @throws IOException if building the entry fails
+    */
+   private static Path lockAndBuild(String key, Path entryDir, EntryBuilder builder) throws IOException {
+      ReentrantLock jvmLock = jvmLocks.computeIfAbsent(key, k -> new ReentrantLock());
+      jvmLock.lock();
+      try {
+         Files.createDirectories(getRoot());
+         try (FileChannel channel = FileChannel.open(getRoot().resolve(key + ".lock"), StandardOpenOption.CREATE,
+               StandardOpenOption.WRITE)) {
+            // Released when the channel is closed
+            channel.lock();
+            Path binary = lookup(entryDir);
+            if (binary != null) {
+               TestLoggerHolder.getLogger().info("{} {}", "📦 Driver cache entry built by another process:", binary);
+               return binary;
+            }
+            return build(entryDir, builder);
+         }
+      } finally {
+         jvmLock.unlock();
+      }
+   }
+
+   /**
+    * Builds the entry in a temporary directory, writes its manifest and moves it
+    * into place
+    *
+    * @param entryDir the entry directory
+    * @param builder  writes the driver files
+    * @return the driver binary
+    * @throws IOException if building the entry fails
+    */
+   private static Path build(Path entryDir, EntryBuilder builder) throws IOException {
+      Path tempDir = getRoot().resolve(".tmp-" + UUID.randomUUID());
+      Files.createDirectories(tempDir);
+      try {
+         Path tempBinary = builder.build(tempDir);
+         Path relative = tempDir.relativize(tempBinary);
+         BasicFileAttributes attributes = Files.readAttributes(tempBinary, BasicFileAttributes.class);
+
+         Properties manifest = new Properties();
+         manifest.setProperty(BINARY, relative.toString().replace('\\', '/'));
+         manifest.setProperty(SHA256, sha256(tempBinary));
+         manifest.setProperty(SIZE, String.valueOf(attributes.size()));
+         manifest.setProperty(MODIFIED, String.valueOf(attributes.lastModifiedTime().toMillis()));
+         try (OutputStream out = Files.newOutputStream(tempDir.resolve(MANIFEST))) {
+            manifest.store(out, "WebDriver binary cache entry");
+         }
+
+         // A stale or corrupt entry is replaced as a whole
+         deleteRecursively(entryDir);
+         try {
+            Files.move(tempDir, entryDir, StandardCopyOption.ATOMIC_MOVE);
+         } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempDir, entryDir);
+         }
+         Path binary = entryDir.resolve(relative);
+         TestLoggerHolder.getLogger().info("{} {}", "📦 Driver cached:", binary);
+         return binary;
+      } finally {
+         deleteRecursively(tempDir);
+      }
+   }
+
+   /**
+    * Calculates the SHA-256 of a file
+    *
+    * @param file the file
+    * @return the hex encoded checksum
+    * @throws IOException if the file cannot be read
+    */
+   private static String sha256(Path file) throws IOException {
+      try (InputStream in = Files.newInputStream(file)) {
+         MessageDigest digest = MessageDigest.getInstance("SHA-256");
+         byte[] buffer = new byte[8192];
+         int read;
+         while ((read = in.read(buffer)) != -1) {
+            digest.update(buffer, 0, read);
+         }
+         return HexFormat.of().formatHex(digest.digest());
+      } catch (NoSuchAlgorithmException e) {
+         throw new IllegalStateException("SHA-256 not available", e);
+      }
+   }
+
+   /**
+    * Deletes a directory and its contents if it exists
+    *
+    * @param dir the directory
+    * @throws IOException if the directory cannot be deleted
+    */
+   private static void deleteRecursively(Path dir) throws IOException {
+      if (!Files.exists(dir)) {
+         return;
+      }
+      Files.walkFileTree(dir, new SimpleFileVisitor<>() {
+         @Override
+         public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+            Files.delete(file);
+            return FileVisitResult.CONTINUE;
+         }
+
+         @Override
+         public FileVisitResult postVisitDirectory(Path d, IOException e) throws IOException {
+            Files.delete(d);
+            return FileVisitResult.CONTINUE;
+         }
+      });
+   }
+}
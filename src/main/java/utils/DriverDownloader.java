@@ -17,6 +17,8 @@ import java.util.zip.ZipInputStream;
  * <ul>
  * <li>Browser version detection (Windows/Linux)</li>
  * <li>Online download via Chrome for Testing (CfT) JSON or fallback URL</li>
+ * <li>A process safe {@link DriverBinaryCache} so a driver is only downloaded
+ * once per browser version</li>
  * <li>Offline fallback to local binary under {@code drivers/}</li>
  * <li>Automatic system property configuration</li>
  * </ul>
@@ -61,9 +63,11 @@ public class DriverDownloader {
    }
 
    /**
-    * Downloads, extracts, and configures the appropriate WebDriver for the given
-    * browser and version. If the driver cannot be fetched online, falls back to a
-    * local copy in the {@code drivers/} directory.
+    * Configures the appropriate WebDriver for the given browser and version from
+    * the {@link DriverBinaryCache}. The driver is only downloaded and extracted
+    * when the cache has no entry for the browser, version and platform. If the
+    * driver cannot be fetched online, falls back to a local copy in the
+    * {@code drivers/} directory.
     *
     * @param browser One of: {@code "chrome"}, {@code "firefox"}, or {@code "edge"}
     * @param version Exact browser version string (e.g. {@code "138.0.7204.98"})
@@ -72,52 +76,12 @@ public class DriverDownloader {
     */
    public static String setupDriverForVersion(String browser, String version) {
       String platform = detectPlatform();
-      Path driverDir = Paths.get("drivers", browser + "driver-" + version);
 
       try {
-         trustAllCerts();
-         String downloadUrl = null;
-
-         // Chrome download
-         if (browser.equals("chrome")) {
-            downloadUrl = getUrlFromCfT(version, platform, browser);
-            if (downloadUrl == null) {
-               downloadUrl = String.format(
-                     "https://edgedl.me.gvt1.com/edgedl/chrome/chrome-for-testing/%s/%s/chromedriver-%s.zip",
-                     version, platform, platform);
-            }
-
-            // Edge download
-         } else if (browser.equals("edge")) {
-            String edgeZipPlatform = platform.equals("win64") ? "edgedriver_win64"
-                  : platform.equals("win32") ? "edgedriver_win32"
-                        : platform.equals("linux64") ? "edgedriver_linux64"
-                              : platform.equals("mac-x64") ? "edgedriver_mac64" : null;
-
-            if (edgeZipPlatform == null) {
-               throw new RuntimeException("Unsupported platform for Edge: " + platform);
-            }
-
-            downloadUrl = String.format("https://msedgedriver.azureedge.net/%s/%s.zip", version, edgeZipPlatform);
-
-            // Firefox download (always use latest geckodriver release)
-         } else if (browser.equals("firefox")) {
-            String geckoPlatform = platform.equals("win64") ? "win64"
-                  : platform.equals("linux64") ? "linux64" : platform.equals("mac-x64") ? "macos" : null;
-
-            if (geckoPlatform == null) {
-               throw new RuntimeException("Unsupported platform for Firefox: " + platform);
-            }
-
-            downloadUrl = String.format(
-                  "https://github.com/mozilla/geckodriver/releases/latest/download/geckodriver-latest-%s.zip",
-                  geckoPlatform);
-         } else {
-            throw new IllegalArgumentException("Unsupported browser: " + browser);
-         }
-
-         // Download + extract driver
-         Path driverBinary = downloadAndExtractDriver(downloadUrl, driverDir);
+         Path driverBinary = DriverBinaryCache.get(browser, version, platform, dir -> {
+            trustAllCerts();
+            return downloadAndExtractDriver(getDownloadUrl(browser, version, platform), dir);
+         });
          System.setProperty("webdriver." + browser + ".driver", driverBinary.toAbsolutePath().toString());
          return driverBinary.toAbsolutePath().toString();
 
@@ -140,6 +104,58 @@ public class DriverDownloader {
       }
    }
 
+   /**
+    * Works out where to download the WebDriver ZIP for the given browser, version
+    * and platform from.
+    *
+    * @param browser  One of: {@code "chrome"}, {@code "firefox"}, or
+    *                 {@code "edge"}
+    * @param version  Exact browser version string
+    * @param platform CfT platform identifier (e.g., {@code "win64"})
+    * @return The ZIP download URL
+    * @throws IOException if the Chrome for Testing index cannot be read
+    */
+   private static String getDownloadUrl(String browser, String version, String platform) throws IOException {
+      // Chrome download
+      if (browser.equals("chrome")) {
+         String downloadUrl = getUrlFromCfT(version, platform, browser);
+         if (downloadUrl == null) {
+            downloadUrl = String.format(
+                  "https://edgedl.me.gvt1.com/edgedl/chrome/chrome-for-testing/%s/%s/chromedriver-%s.zip", version,
+                  platform, platform);
+         }
+         return downloadUrl;
+
+         // Edge download
+      } else if (browser.equals("edge")) {
+         String edgeZipPlatform = platform.equals("win64") ? "edgedriver_win64"
+               : platform.equals("win32") ? "edgedriver_win32"
+                     : platform.equals("linux64") ? "edgedriver_linux64"
+                           : platform.equals("mac-x64") ? "edgedriver_mac64" : null;
+
+         if (edgeZipPlatform == null) {
+            throw new RuntimeException("Unsupported platform for Edge: " + platform);
+         }
+
+         return String.format("https://msedgedriver.azureedge.net/%s/%s.zip", version, edgeZipPlatform);
+
+         // Firefox download (always use latest geckodriver release)
+      } else if (browser.equals("firefox")) {
+         String geckoPlatform = platform.equals("win64") ? "win64"
+               : platform.equals("linux64") ? "linux64" : platform.equals("mac-x64") ? "macos" : null;
+
+         if (geckoPlatform == null) {
+            throw new RuntimeException("Unsupported platform for Firefox: " + platform);
+         }
+
+         return String.format(
+               "https://github.com/mozilla/geckodriver/releases/latest/download/geckodriver-latest-%s.zip",
+               geckoPlatform);
+      } else {
+         throw new IllegalArgumentException("Unsupported browser: " + browser);
+      }
+   }
+
    /**
     * Attempts to locate the download URL for the given Chrome version and platform
     * in Google's Chrome for Testing (CfT) last-known-good versions JSON index.
@@ -201,7 +217,10 @@ public class DriverDownloader {
 
          ZipEntry entry;
          while ((entry = zipIn.getNextEntry()) != null) {
-            Path filePath = outputDir.resolve(entry.getName());
+            Path filePath = outputDir.resolve(entry.getName()).normalize();
+            if (!filePath.startsWith(outputDir.normalize())) {
+               throw new IOException("ZIP entry outside the target directory: " + entry.getName());
+            }
             if (!entry.isDirectory()) {
                Files.createDirectories(filePath.getParent());
                try (BufferedOutputStream bos = new BufferedOutputStream(Files.newOutputStream(filePath))) {
@@ -235,19 +254,23 @@ public class DriverDownloader {
     * <li>On Windows: uses registry queries</li>
     * <li>On Linux/macOS: uses known shell commands</li>
     * </ul>
+    * The detection only runs when the {@link BrowserVersionCache} has no version
+    * for the current browser install.
     *
     * @param browser One of: {@code "chrome"}, {@code "firefox"}, or {@code "edge"}
     * @return The full browser version string (e.g., {@code "138.0.7204.98"})
     * @throws RuntimeException if the version cannot be detected
     */
    private static String detectInstalledVersion(String browser) {
-      String os = System.getProperty("os.name").toLowerCase();
+      return BrowserVersionCache.get(browser, () -> {
+         String os = System.getProperty("os.name").toLowerCase();
 
-      if (os.contains("win")) {
-         return detectVersionWindows(browser);
-      } else {
-         return detectVersionShell(browser);
-      }
+         if (os.contains("win")) {
+            return detectVersionWindows(browser);
+         } else {
+            return detectVersionShell(browser);
+         }
+      });
    }
 
    /**
@@ -1,16 +1,30 @@
 package utils;
 
 import java.io.File;
-import java.net.InetAddress;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.MutableCapabilities;
+import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeDriverService;
 import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.ChromiumOptions;
 import org.openqa.selenium.edge.EdgeDriver;
+import org.openqa.selenium.edge.EdgeDriverService;
 import org.openqa.selenium.edge.EdgeOptions;
 import org.openqa.selenium.firefox.FirefoxDriver;
 import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.firefox.GeckoDriverService;
+import org.openqa.selenium.remote.CapabilityType;
 import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.service.DriverFinder;
+import org.openqa.selenium.remote.service.DriverService;
 
 import constants.IConstants;
 
@@ -18,7 +32,7 @@ import constants.IConstants;
  * Manages thread-safe WebDriver instances for each test thread.
  * <p>
  * Supports driver initialization (online and offline), lifecycle management,
- * and cross-browser execution.
+ * pooled browser reuse and cross-browser execution.
  */
 public class DriverManager {
 
@@ -107,16 +121,14 @@ public class DriverManager {
          break;
       }
 
-      // 1️⃣ Attempt online driver download using your downloader (e.g.,
-      // WebDriverManager logic)
+      // 1️⃣ Resolve the driver from the binary cache, downloading it on a miss.
+      // A cache hit needs no network access, so there is no connectivity check
+      // up front; when offline a miss simply fails over to the bundled driver.
       try {
-         InetAddress address = InetAddress.getByName("google.com");
-         if (address != null) {
-            TestLoggerHolder.getLogger().info("{} {}", "✅ Internet detected. Downloading driver for: ", browserName);
-            String path = DriverDownloader.download(browserName.toLowerCase());
-            System.setProperty(systemPropertyKey, path);
-            return;
-         }
+         String path = DriverDownloader.download(browserName.toLowerCase());
+         TestLoggerHolder.getLogger().info("{} {}", "✅ Driver resolved for: ", browserName);
+         System.setProperty(systemPropertyKey, path);
+         return;
       } catch (Exception e) {
          TestLoggerHolder.getLogger().warn("⚠️ Online driver detection/download failed: " + e.getMessage(), e);
       }
@@ -138,38 +150,129 @@ public class DriverManager {
    /**
     * Initializes the appropriate WebDriver based on configuration (Chrome,
     * Firefox, Edge). Downloads the driver if online, or uses local fallback.
+    * <p>
+    * When the driver pool is enabled a warm browser is leased from the
+    * {@link DriverPool} before a new one is launched. When pre-spawning is enabled
+    * a browser already launched by the {@link DriverProvisioner} is taken next.
+    * A new browser is only launched once the {@link BrowserSlotScheduler} has a
+    * free slot, so no more than maxLocalInstances browsers (including idle and
+    * standby ones) are live at once.
     */
    public static void initDriver() {
       if (driverThreadLocal.get() != null) {
          return; // driver already initialised
       }
 
-      String browser = BaseTestConfiguration.getBrowser();
-      RemoteWebDriver webDriver;
+      try {
+         driverThreadLocal.set(acquireDriver());
+      } catch (RuntimeException e) {
+         BrowserSlotScheduler.release();
+         throw e;
+      }
+      TestLoggerHolder.getLogger().info("{} {}", "Webdriver initialised for thread:", Thread.currentThread());
+   }
+
+   /**
+    * Gets a browser for the current thread: a pooled browser, then a standby
+    * browser, then a newly launched one.
+    *
+    * @return the browser session
+    */
+   private static RemoteWebDriver acquireDriver() {
+      long start = System.nanoTime();
+      AtomicReference<DriverStartupProfiler.Source> source = new AtomicReference<>(DriverStartupProfiler.Source.NEW);
+      AtomicBoolean lookedBefore = new AtomicBoolean();
+      RemoteWebDriver webDriver = BrowserSlotScheduler.acquire(BaseTestConfiguration.getBrowser(), () -> {
+         RemoteWebDriver parked = BaseTestConfiguration.isDriverPool() ? DriverPool.lease() : null;
+         if (parked != null) {
+            source.set(DriverStartupProfiler.Source.POOL);
+         } else if (BaseTestConfiguration.getDriverStandbyDepth() > 0) {
+            // Only the first look counts as a standby hit or miss and starts a refill
+            parked = lookedBefore.getAndSet(true) ? DriverProvisioner.takeReady()
+                  : DriverProvisioner.take(DriverManager::createDriver);
+            if (parked != null) {
+               source.set(DriverStartupProfiler.Source.STANDBY);
+               if (BaseTestConfiguration.isDriverPool()) {
+                  DriverPool.register(parked);
+               }
+            }
+         }
+         return parked;
+      });
 
-      switch (browser.toUpperCase()) {
+      if (webDriver == null) {
+         webDriver = createDriver();
+         if (BaseTestConfiguration.isDriverPool()) {
+            DriverPool.register(webDriver);
+         }
+      }
+      DriverStartupProfiler.recordStart(BaseTestConfiguration.getBrowser(), source.get(), start);
+      return webDriver;
+   }
+
+   /**
+    * Creates a new WebDriver for the configured browser (Chrome, Firefox, Edge).
+    * In multiContext mode a Chrome scenario gets a browser context in the shared
+    * {@link MultiContextBrowser} instead of its own browser.
+    *
+    * @return a new WebDriver instance
+    */
+   private static RemoteWebDriver createDriver() {
+      switch (BaseTestConfiguration.getBrowser().toUpperCase()) {
       case IConstants.FIREFOX:
-         webDriver = createFirefoxDriver();
-         break;
+         return createFirefoxDriver();
       case IConstants.EDGE:
-         webDriver = createEdgeDriver();
-         break;
+         return createEdgeDriver();
       case IConstants.CHROME:
       default:
-         webDriver = createChromeDriver();
-         break;
+         if (BaseTestConfiguration.isMultiContext() && BaseTestConfiguration.getGridUrls().isEmpty()) {
+            return MultiContextBrowser.newContextDriver(DriverManager::createChromeDriver);
+         }
+         return createChromeDriver();
       }
-
-      driverThreadLocal.set(webDriver);
-      TestLoggerHolder.getLogger().info("{} {}", "Webdriver initialised for thread:", Thread.currentThread());
    }
 
    /**
-    * Creates a Chrome webdriver instance
+    * Creates a Chrome webdriver instance. When chromeProfileTemplate is enabled
+    * (local browsers only) the browser starts on its own copy of the warmed
+    * {@link ChromeProfileTemplate}.
     * 
     * @return Chrome WebDriver instance
     */
    public static RemoteWebDriver createChromeDriver() {
+      ChromeOptions chromeOptions = createChromeOptions();
+
+      Path sessionProfile = null;
+      if (BaseTestConfiguration.isChromeProfileTemplate() && BaseTestConfiguration.getGridUrls().isEmpty()) {
+         sessionProfile = ChromeProfileTemplate.newSessionProfile(DriverManager::createChromeOptions);
+         if (sessionProfile != null) {
+            chromeOptions.addArguments("--user-data-dir=" + sessionProfile.toAbsolutePath());
+         }
+      }
+
+      TestLoggerHolder.getLogger().info("Initilising Chromedriver...");
+
+      RemoteWebDriver driver;
+      try {
+         driver = createWebDriver(chromeOptions);
+      } catch (RuntimeException e) {
+         if (sessionProfile != null) {
+            ChromeProfileTemplate.discard(sessionProfile);
+         }
+         throw e;
+      }
+      if (sessionProfile != null) {
+         ChromeProfileTemplate.register(driver, sessionProfile);
+      }
+      return driver;
+   }
+
+   /**
+    * Creates the options Chrome test browsers are launched with
+    * 
+    * @return the Chrome options
+    */
+   private static ChromeOptions createChromeOptions() {
       ChromeOptions chromeOptions = new ChromeOptions();
       chromeOptions.addArguments(DISABLE_GPU);
       chromeOptions.addArguments(NO_SANDBOX);
@@ -182,10 +285,7 @@ public class DriverManager {
       if (BaseTestConfiguration.getHeadless().equalsIgnoreCase("true")) {
          chromeOptions.addArguments("--headless=new");
       }
-
-      TestLoggerHolder.getLogger().info("Initilising Chromedriver...");
-
-      return createWebDriver(chromeOptions);
+      return chromeOptions;
    }
 
    /**
@@ -233,47 +333,138 @@ public class DriverManager {
    }
 
    /**
-    * Helper method to create WebDriver (Local or Selenium Grid)
+    * Helper method to create WebDriver (Local or Selenium Grid). Remote sessions
+    * are used when gridUrls is set.
     * 
-    * @param capabilities
-    * @return
+    * @param options the browser options
+    * @return the WebDriver instance
     */
    private static RemoteWebDriver createWebDriver(Object options) {
-
-      if (options instanceof ChromeOptions) {
-         return new ChromeDriver((ChromeOptions) options);
-      } else if (options instanceof FirefoxOptions) {
-         return new FirefoxDriver((FirefoxOptions) options);
-      } else if (options instanceof EdgeOptions) {
-         return new EdgeDriver((EdgeOptions) options);
+      DriverStartupProfiler.beginLaunch();
+
+      if (!BaseTestConfiguration.getGridUrls().isEmpty() && options instanceof Capabilities capabilities) {
+         long start = System.nanoTime();
+         RemoteWebDriver driver = GridNodeSelector.createRemoteDriver(capabilities);
+         DriverStartupProfiler.recordPhase(DriverStartupProfiler.Phase.NEW_SESSION, start);
+         return driver;
+      } else if (options instanceof ChromeOptions chromeOptions) {
+         ChromeDriverService service = ChromeDriverService.createDefaultService();
+         return launchLocalDriver(service, chromeOptions, () -> new ChromeDriver(service, chromeOptions,
+               SessionHealthTracker.getClientConfig()));
+      } else if (options instanceof FirefoxOptions firefoxOptions) {
+         GeckoDriverService service = GeckoDriverService.createDefaultService();
+         return launchLocalDriver(service, firefoxOptions, () -> new FirefoxDriver(service, firefoxOptions,
+               SessionHealthTracker.getClientConfig()));
+      } else if (options instanceof EdgeOptions edgeOptions) {
+         EdgeDriverService service = EdgeDriverService.createDefaultService();
+         return launchLocalDriver(service, edgeOptions, () -> new EdgeDriver(service, edgeOptions,
+               SessionHealthTracker.getClientConfig()));
       } else {
          throw new IllegalArgumentException("Unsupported browser options");
       }
    }
 
+   /**
+    * Launches a local browser one phase at a time so that each phase can be
+    * timed by the {@link DriverStartupProfiler}: resolving the driver binary,
+    * starting the driver service and creating the session. This is the same
+    * work the driver constructors do when handed options alone.
+    *
+    * @param service        the driver service for the browser
+    * @param options        the browser options
+    * @param sessionFactory creates the session on the started service
+    * @return the WebDriver instance
+    */
+   private static RemoteWebDriver launchLocalDriver(DriverService service, MutableCapabilities options,
+         Supplier<RemoteWebDriver> sessionFactory) {
+      long start = System.nanoTime();
+      DriverFinder finder = new DriverFinder(service, options);
+      service.setExecutable(finder.getDriverPath());
+      if (finder.hasBrowserPath()) {
+         if (options instanceof ChromiumOptions<?> chromiumOptions) {
+            chromiumOptions.setBinary(finder.getBrowserPath());
+         } else if (options instanceof FirefoxOptions firefoxOptions) {
+            firefoxOptions.setBinary(finder.getBrowserPath());
+         }
+         options.setCapability(CapabilityType.BROWSER_VERSION, (Object) null);
+      }
+      DriverStartupProfiler.recordPhase(DriverStartupProfiler.Phase.RESOLVE, start);
+
+      start = System.nanoTime();
+      try {
+         service.start();
+      } catch (IOException | RuntimeException e) {
+         // A cached driver that does not start may have been corrupted since it was cached
+         DriverBinaryCache.checkAfterFailedLaunch(Path.of(finder.getDriverPath()));
+         if (e instanceof RuntimeException runtime) {
+            throw runtime;
+         }
+         throw new WebDriverException("Driver service could not be started", e);
+      }
+      DriverStartupProfiler.recordPhase(DriverStartupProfiler.Phase.SERVICE_START, start);
+
+      start = System.nanoTime();
+      try {
+         RemoteWebDriver driver = sessionFactory.get();
+         DriverStartupProfiler.recordPhase(DriverStartupProfiler.Phase.NEW_SESSION, start);
+         DriverProcessRegistry.register(driver, service);
+         return driver;
+      } catch (RuntimeException e) {
+         service.stop();
+         throw e;
+      }
+   }
+
    /**
     * Returns the current thread-local WebDriver instance.
     * <p>
-    * If none exists, a new driver is initialized automatically.
+    * If none exists, a new driver is initialized automatically. The session is
+    * only probed for liveness when the {@link SessionHealthTracker} says so (after
+    * a failure, or once the health check TTL has expired) rather than on every
+    * call.
     *
     * @return WebDriver instance for the current thread
     */
    public static RemoteWebDriver getCurrentDriver() {
-      if (driverThreadLocal.get() == null) {
+      RemoteWebDriver driver = driverThreadLocal.get();
+      if (driver == null) {
          TestLoggerHolder.getLogger().warn("Driver is not initialised - initialising now");
          initDriver();
-      } else {
-         try {
-            driverThreadLocal.get().getTitle(); // Ensures the session is active
-         } catch (Exception e) {
-            TestLoggerHolder.getLogger().warn("WebDriver session is stale. Reinitialising...");
-            closeDriver(); // Close Stale instance
-            initDriver(); // Reinitialise
-         }
+      } else if (SessionHealthTracker.needsProbe(driver) && !SessionHealthTracker.probe(driver)) {
+         TestLoggerHolder.getLogger().warn("WebDriver session is stale. Reinitialising...");
+         closeDriver(); // Close Stale instance
+         initDriver(); // Reinitialise
       }
       return driverThreadLocal.get();
    }
 
+   /**
+    * Marks the current session as suspect so that the next lookup probes it
+    * before handing it out. Called when a command or step fails.
+    */
+   public static void markSessionSuspect() {
+      SessionHealthTracker.markSuspect(driverThreadLocal.get());
+   }
+
+   /**
+    * Checks whether the current thread holds a browser without creating one
+    *
+    * @return true if a driver is initialised for the current thread
+    */
+   public static boolean hasDriver() {
+      return driverThreadLocal.get() != null;
+   }
+
+   /**
+    * Gets the current thread's WebDriver as it is, without probing the session
+    * or creating one
+    *
+    * @return the WebDriver, or null if the thread has none
+    */
+   public static RemoteWebDriver peekDriver() {
+      return driverThreadLocal.get();
+   }
+
    /**
     * Gets the current URL of the active browser session
     * 
@@ -287,18 +478,28 @@ public class DriverManager {
     * This method closes all other tabs other than the main one.
     */
    public static void closeOtherTabs() {
+      closeOtherTabs(driverThreadLocal.get());
+   }
+
+   /**
+    * This method closes all other tabs other than the main one for the given
+    * driver.
+    *
+    * @param driver the driver whose extra tabs should be closed
+    */
+   public static void closeOtherTabs(RemoteWebDriver driver) {
       // Get The main tab
-      String mainWindow = driverThreadLocal.get().getWindowHandle();
+      String mainWindow = driver.getWindowHandle();
 
       // Iterate and close all the other tabs
-      for (String handle : driverThreadLocal.get().getWindowHandles()) {
+      for (String handle : driver.getWindowHandles()) {
          if (!handle.equals(mainWindow)) {
-            driverThreadLocal.get().switchTo().window(handle);
-            driverThreadLocal.get().close();
+            driver.switchTo().window(handle);
+            driver.close();
          }
       }
 
-      driverThreadLocal.get().switchTo().window(mainWindow);
+      driver.switchTo().window(mainWindow);
    }
 
    /**
@@ -308,39 +509,91 @@ public class DriverManager {
     * Supports handling multiple tabs/windows.
     */
    public static void closeDriver() {
+      SessionHealthTracker.forget(driverThreadLocal.get());
+      if (BaseTestConfiguration.isDriverPool() && driverThreadLocal.get() != null) {
+         TestLoggerHolder.getLogger().info("Returning the driver to the pool");
+         // An idle browser keeps its slot, it is given back if the pool quits it
+         BrowserSlotScheduler.park(driverThreadLocal.get());
+         DriverPool.release(driverThreadLocal.get());
+         driverThreadLocal.remove();
+         return;
+      }
+
       TestLoggerHolder.getLogger().info("About to quit the driver");
-      if (driverThreadLocal != null) {
+      RemoteWebDriver driver = driverThreadLocal.get();
+      if (driver != null) {
          try {
-            Set<String> windows = driverThreadLocal.get().getWindowHandles();
+            Set<String> windows = driver.getWindowHandles();
             if (windows.size() > 1) {
-               String mainWindow = driverThreadLocal.get().getWindowHandle();
+               String mainWindow = driver.getWindowHandle();
                for (String handle : windows) {
                   if (!handle.equals(mainWindow)) {
-                     driverThreadLocal.get().switchTo().window(handle);
-                     driverThreadLocal.get().close();
+                     driver.switchTo().window(handle);
+                     driver.close();
                   }
                }
-               driverThreadLocal.get().switchTo().window(mainWindow);
-               driverThreadLocal.get().close();
-            } else {
-               driverThreadLocal.get().quit();
+               driver.switchTo().window(mainWindow);
             }
          } catch (Exception e) {
             TestLoggerHolder.getLogger().error("Error closing driver windows: " + e.getMessage());
          } finally {
-            driverThreadLocal.get().quit();
+            try {
+               quitDriver(driver);
+            } catch (Exception e) {
+               TestLoggerHolder.getLogger().error("Error quitting driver: " + e.getMessage());
+            }
             driverThreadLocal.remove();
+            BrowserSlotScheduler.release();
          }
       } else {
          TestLoggerHolder.getLogger().info("driverThreadLocal is null, cannot close driver.");
       }
    }
 
+   /**
+    * Quits a browser and removes anything created for its session, such as a
+    * cloned Chrome profile. Driver and browser processes still running after the
+    * quit (e.g. because it failed) are killed.
+    *
+    * @param driver the browser to quit
+    */
+   public static void quitDriver(RemoteWebDriver driver) {
+      try {
+         driver.quit();
+      } finally {
+         DriverProcessRegistry.release(driver);
+         ChromeProfileTemplate.release(driver);
+         BrowserSlotScheduler.release(driver);
+      }
+   }
+
+   /**
+    * Quits any browsers still held for reuse, kills driver processes left running
+    * and logs the driver start up statistics. Called when the test run finishes.
+    */
+   public static void quitAllDrivers() {
+      DriverScope.shutdown();
+      DriverProvisioner.shutdown();
+      DriverPool.shutdown();
+      MultiContextBrowser.shutdown();
+      DriverProcessRegistry.shutdown();
+      ChromeProfileTemplate.shutdown();
+      TestLoggerHolder.getLogger().info(SessionHealthTracker.getSummary());
+      TestLoggerHolder.getLogger().info(BrowserSlotScheduler.getSummary());
+      TestLoggerHolder.getLogger().info(BrowserVersionCache.getSummary());
+      TestLoggerHolder.getLogger().info(NetworkShaper.getSummary());
+      TestLoggerHolder.getLogger().info(PageQuiescence.getSummary());
+      TestLoggerHolder.getLogger().info(DriverStartupProfiler.getSummary());
+      TestLoggerHolder.getLogger().info(DriverProcessRegistry.getSummary());
+      DriverStartupProfiler.writeReport(TestReport.getLatestExtentReportFolder());
+   }
+
    /**
     * This method refreshes the page
     */
    public static void refresh() {
       TestLoggerHolder.getLogger().info("Refresh the page");
+      ElementCache.invalidateAll();
       driverThreadLocal.get().navigate().refresh();
    }
 }
\ No newline at end of file
@@ -0,0 +1,174 @@
+package utils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+/**
+ * Keeps a bounded set of warm browser sessions so that a scenario can lease an
+ * already running browser instead of launching a new one.
+ * <p>
+ * A session returned to the pool is reset (extra tabs, cookies, local and
+ * session storage) and parked on {@code about:blank}. Sessions are retired
+ * after {@link BaseTestConfiguration#getDriverPoolMaxUses()} scenarios, when a
+ * reset fails, when they fail the health check on lease or when their processes
+ * go over the browser memory budget.
+ */
+public class DriverPool {
+
+   /**
+    * Constructor required for Sonar
+    */
+   private DriverPool() {
+      throw new IllegalStateException("Utility class");
+   }
+
+   private static final String ABOUT_BLANK = "about:blank";
+   private static final String CLEAR_STORAGE_SCRIPT = "try { window.localStorage.clear(); } catch (e) {} "
+         + "try { window.sessionStorage.clear(); } catch (e) {}";
+
+   private static final ConcurrentLinkedDeque<RemoteWebDriver> idleDrivers = new ConcurrentLinkedDeque<>();
+   private static final Map<RemoteWebDriver, Integer> useCounts = new ConcurrentHashMap<>();
+
+   /**
+    * Leases a healthy idle session from the pool.
+    *
+    * @return a reset browser session, or null if none is available
+    */
+   public static RemoteWebDriver lease() {
+      RemoteWebDriver driver;
+      while ((driver = idleDrivers.pollFirst()) != null) {
+         if (DriverProcessRegistry.isOverBudget(driver)) {
+            TestLoggerHolder.getLogger().warn("Pooled browser is over its memory budget - retiring it");
+            DriverProcessRegistry.recordMemoryRestart();
+            retire(driver);
+         } else if (isHealthy(driver)) {
+            int uses = useCounts.merge(driver, 1, Integer::sum);
+            TestLoggerHolder.getLogger().info("{} {}", "♻ Leased pooled browser, use number:", uses);
+            return driver;
+         } else {
+            TestLoggerHolder.getLogger().warn("Pooled browser failed its health check - retiring it");
+            retire(driver);
+         }
+      }
+      return null;
+   }
+
+   /**
+    * Registers a newly created session with the pool so that it can be recycled
+    * when the scenario finishes.
+    *
+    * @param driver the new browser session
+    */
+   public static void register(RemoteWebDriver driver) {
+      useCounts.put(driver, 1);
+   }
+
+   /**
+    * Resets a session and returns it to the pool. The session is quit instead if
+    * it has reached its maximum number of uses, the reset fails or the pool is
+    * already full.
+    *
+    * @param driver the browser session the scenario has finished with
+    */
+   public static void release(RemoteWebDriver driver) {
+      int uses = useCounts.getOrDefault(driver, BaseTestConfiguration.getDriverPoolMaxUses());
+      if (uses >= BaseTestConfiguration.getDriverPoolMaxUses()) {
+         TestLoggerHolder.getLogger().info("{} {}", "Pooled browser reached its maximum uses:", uses);
+         retire(driver);
+         return;
+      }
+      if (DriverProcessRegistry.isOverBudget(driver)) {
+         TestLoggerHolder.getLogger().warn("Pooled browser is over its memory budget - retiring it");
+         DriverProcessRegistry.recordMemoryRestart();
+         retire(driver);
+         return;
+      }
+
+      try {
+         reset(driver);
+      } catch (Exception e) {
+         TestLoggerHolder.getLogger().warn("Could not reset pooled browser - retiring it: " + e.getMessage());
+         retire(driver);
+         return;
+      }
+
+      if (idleDrivers.size() >= BaseTestConfiguration.getDriverPoolSize()) {
+         retire(driver);
+      } else {
+         idleDrivers.offerFirst(driver);
+      }
+   }
+
+   /**
+    * Quits every idle session held by the pool. Called when the test run
+    * finishes.
+    */
+   public static void shutdown() {
+      RemoteWebDriver driver;
+      while ((driver = idleDrivers.pollFirst()) != null) {
+         retire(driver);
+      }
+      useCounts.clear();
+   }
+
+   /**
+    * Gets the number of idle sessions waiting in the pool
+    *
+    * @return the idle session count
+    */
+   public static int getIdleCount() {
+      return idleDrivers.size();
+   }
+
+   /**
+    * Clears the state a previous scenario may have left behind: extra tabs,
+    * storage, cookies and the current page. Also used by {@link DriverScope} at
+    * feature boundaries.
+    *
+    * @param driver the browser session to reset
+    */
+   static void reset(RemoteWebDriver driver) {
+      DriverManager.closeOtherTabs(driver);
+      driver.executeScript(CLEAR_STORAGE_SCRIPT);
+      if (driver instanceof HasCdp cdp) {
+         // Clears cookies for every domain, not just the current one
+         cdp.executeCdpCommand("Network.clearBrowserCookies", Map.of());
+      } else {
+         driver.manage().deleteAllCookies();
+      }
+      driver.get(ABOUT_BLANK);
+   }
+
+   /**
+    * Checks the session still responds
+    *
+    * @param driver the browser session to check
+    * @return true if the session responded
+    */
+   private static boolean isHealthy(RemoteWebDriver driver) {
+      try {
+         driver.getWindowHandle();
+         return true;
+      } catch (Exception e) {
+         return false;
+      }
+   }
+
+   /**
+    * Quits a session and forgets about it
+    *
+    * @param driver the browser session to quit
+    */
+   private static void retire(RemoteWebDriver driver) {
+      useCounts.remove(driver);
+      try {
+         DriverManager.quitDriver(driver);
+      } catch (Exception e) {
+         TestLoggerHolder.getLogger().warn("Error quitting pooled browser: " + e.getMessage());
+      }
+   }
+}
@@ -0,0 +1,259 @@
+package utils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.service.DriverService;
+
+/**
+ * Keeps track of the driver process (chromedriver, geckodriver, msedgedriver)
+ * behind every local browser session, so that no driver or browser process
+ * outlives its session.
+ * <p>
+ * When a session quits, any of its processes still running are killed. A
+ * background watchdog samples the resident memory of each session's process
+ * tree (driver plus browser processes) and flags sessions over
+ * {@link BaseTestConfiguration#getBrowserMemoryBudgetMb()}, so that kept or
+ * pooled browsers are replaced between scenarios. Sessions never quit (e.g. a
+ * scenario thread that died) are killed when the run finishes, or by a JVM
+ * shutdown hook if the run is aborted.
+ * <p>
+ * Memory is read from {@code /proc}, so the watchdog only samples on Linux;
+ * process cleanup works on every platform.
+ */
+public class DriverProcessRegistry {
+
+   /**
+    * Constructor required for Sonar
+    */
+   private DriverProcessRegistry() {
+      throw new IllegalStateException("Utility class");
+   }
+
+   /**
+    * A registered session
+    *
+    * @param driverProcess the driver process
+    * @param overBudget    true once the process tree has used more memory than
+    *                      the budget
+    */
+   private record Session(ProcessHandle driverProcess, boolean overBudget) {
+   }
+
+   private static final String DRIVER_NAMES = "chromedriver|geckodriver|msedgedriver";
+   private static final Map<RemoteWebDriver, Session> sessions = new ConcurrentHashMap<>();
+
+   private static final AtomicLong registered = new AtomicLong();
+   private static final AtomicLong orphansKilled = new AtomicLong();
+   private static final AtomicLong memoryRestarts = new AtomicLong();
+   private static final AtomicLong peakSessionRssMb = new AtomicLong();
+
+   private static ScheduledExecutorService watchdog;
+
+   /**
+    * Records the driver process behind a newly created session, starting the
+    * watchdog and shutdown hook with the first session
+    *
+    * @param driver  the session
+    * @param service the started driver service
+    */
+   public static void register(RemoteWebDriver driver, DriverService service) {
+      Optional<ProcessHandle> driverProcess = findDriverProcess(service.getUrl().getPort());
+      if (driverProcess.isEmpty()) {
+         TestLoggerHolder.getLogger().warn("Driver process not found for " + service.getUrl());
+         return;
+      }
+      sessions.put(driver, new Session(driverProcess.get(), false));
+      registered.incrementAndGet();
+      startWatchdog();
+   }
+
+   /**
+    * Forgets a session that has quit and kills any of its processes that are
+    * still running
+    *
+    * @param driver the session
+    */
+   public static void release(RemoteWebDriver driver) {
+      Session session = driver == null ? null : sessions.remove(driver);
+      if (session != null && killTree(session.driverProcess(), 2000) > 0) {
+         orphansKilled.incrementAndGet();
+      }
+   }
+
+   /**
+    * Checks whether a session's processes have used more memory than the budget
+    * since it was created
+    *
+    * @param driver the session
+    * @return true if the session should be replaced
+    */
+   public static boolean isOverBudget(RemoteWebDriver driver) {
+      Session session = driver == null ? null : sessions.get(driver);
+      return session != null && session.overBudget();
+   }
+
+   /**
+    * Records that a session was replaced because it used too much memory
+    */
+   public static void recordMemoryRestart() {
+      memoryRestarts.incrementAndGet();
+   }
+
+   /**
+    * Kills the processes of every session that was never quit. Called when the
+    * test run finishes and from the JVM shutdown hook.
+    */
+   public static synchronized void shutdown() {
+      if (watchdog != null) {
+         watchdog.shutdownNow();
+         watchdog = null;
+      }
+      List<Session> orphans = new ArrayList<>(sessions.values());
+      sessions.clear();
+      for (Session session : orphans) {
+         if (killTree(session.driverProcess(), 0) > 0) {
+            orphansKilled.incrementAndGet();
+         }
+      }
+   }
+
+   /**
+    * Gets a one line summary of the process and memory statistics
+    *
+    * @return the summary
+    */
+   public static String getSummary() {
+      return String.format(
+            "Driver processes: %d sessions registered, %d left running and killed, %d restarted for memory, "
+                  + "peak session RSS %d MB (budget %s)",
+            registered.get(), orphansKilled.get(), memoryRestarts.get(), peakSessionRssMb.get(),
+            BaseTestConfiguration.getBrowserMemoryBudgetMb() > 0
+                  ? BaseTestConfiguration.getBrowserMemoryBudgetMb() + " MB"
+                  : "off");
+   }
+
+   /**
+    * Finds the driver process among this JVM's child processes by the port it
+    * was started on, falling back to the newest unregistered driver process
+    *
+    * @param port the driver service port
+    * @return the driver process
+    */
+   private static Optional<ProcessHandle> findDriverProcess(int port) {
+      List<ProcessHandle> drivers = ProcessHandle.current().children()
+            .filter(p -> p.info().command().map(c -> Paths.get(c).getFileName().toString()
+                  .replaceAll("\\.exe$", "").matches(DRIVER_NAMES)).orElse(false))
+            .toList();
+      Optional<ProcessHandle> byPort = drivers.stream().filter(p -> p.info().arguments()
+            .map(args -> String.join(" ", args).contains("--port=" + port)).orElse(false)).findFirst();
+      if (byPort.isPresent()) {
+         return byPort;
+      }
+      return drivers.stream()
+            .filter(p -> sessions.values().stream().noneMatch(s -> s.driverProcess().pid() == p.pid()))
+            .max((a, b) -> a.info().startInstant().orElseThrow().compareTo(b.info().startInstant().orElseThrow()));
+   }
+
+   /**
+    * Kills a driver process and its browser processes if they are still running
+    *
+    * @param driverProcess the driver process
+    * @param graceMillis   how long to give the processes to exit on their own
+    * @return the number of processes killed
+    */
+   private static int killTree(ProcessHandle driverProcess, long graceMillis) {
+      List<ProcessHandle> tree = new ArrayList<>(driverProcess.descendants().toList());
+      tree.add(driverProcess);
+      long deadline = System.currentTimeMillis() + graceMillis;
+      while (System.currentTimeMillis() < deadline && tree.stream().anyMatch(ProcessHandle::isAlive)) {
+         try {
+            Thread.sleep(100);
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            break;
+         }
+      }
+
+      int killed = 0;
+      for (ProcessHandle process : tree) {
+         if (process.isAlive() && process.destroyForcibly()) {
+            killed++;
+         }
+      }
+      if (killed > 0) {
+         TestLoggerHolder.getLogger().warn("Killed " + killed + " driver/browser processes left running by pid "
+               + driverProcess.pid());
+      }
+      return killed;
+   }
+
+   /**
+    * Starts the memory watchdog (Linux, with a budget set) and the shutdown hook
+    * that kills orphaned processes
+    */
+   private static synchronized void startWatchdog() {
+      if (watchdog != null) {
+         return;
+      }
+      watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+         Thread thread = new Thread(runnable, "driver-memory-watchdog");
+         thread.setDaemon(true);
+         return thread;
+      });
+      Runtime.getRuntime().addShutdownHook(new Thread(DriverProcessRegistry::shutdown, "driver-reaper"));
+      if (Files.isDirectory(Paths.get("/proc/self"))) {
+         long interval = BaseTestConfiguration.getMemoryWatchdogIntervalSeconds();
+         watchdog.scheduleWithFixedDelay(DriverProcessRegistry::sampleMemory, interval, interval, TimeUnit.SECONDS);
+      }
+   }
+
+   /**
+    * Samples the resident memory of every session's process tree
+    */
+   private static void sampleMemory() {
+      long budget = BaseTestConfiguration.getBrowserMemoryBudgetMb();
+      sessions.forEach((driver, session) -> {
+         long rssMb = session.driverProcess().descendants().mapToLong(DriverProcessRegistry::readRssKb).sum()
+               / 1024 + readRssKb(session.driverProcess()) / 1024;
+         peakSessionRssMb.accumulateAndGet(rssMb, Math::max);
+         if (budget > 0 && rssMb > budget && !session.overBudget()) {
+            TestLoggerHolder.getLogger().warn("Browser session using " + rssMb + " MB (budget " + budget
+                  + " MB) - it will be replaced before its next scenario");
+            sessions.computeIfPresent(driver, (d, s) -> new Session(s.driverProcess(), true));
+         }
+      });
+   }
+
+   /**
+    * Reads the resident set size of a process
+    *
+    * @param process the process
+    * @return the RSS in KB, 0 if it cannot be read
+    */
+   private static long readRssKb(ProcessHandle process) {
+      Path status = Paths.get("/proc", String.valueOf(process.pid()), "status");
+      try {
+         for (String line : Files.readAllLines(status)) {
+            if (line.startsWith("VmRSS:")) {
+               return Long.parseLong(line.replaceAll("\\D", ""));
+            }
+         }
+      } catch (IOException | NumberFormatException e) {
+         // The process has exited
+      }
+      return 0;
+   }
+}
@@ -0,0 +1,214 @@
+package utils;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+/**
+ * Launches browsers on a background executor so that a scenario starting up
+ * can take a ready session from the standby queue instead of waiting for the
+ * browser to launch.
+ * <p>
+ * The queue is kept at {@link BaseTestConfiguration#getDriverStandbyDepth()}
+ * sessions (launched or being launched). Every hand-over and every miss
+ * triggers a refill, so the next browser is being built while the current
+ * scenario runs. A standby browser takes a {@link BrowserSlotScheduler} slot
+ * like any other browser; it is only launched when a slot is free.
+ */
+public class DriverProvisioner {
+
+   /**
+    * Constructor required for Sonar
+    */
+   private DriverProvisioner() {
+      throw new IllegalStateException("Utility class");
+   }
+
+   /**
+    * A launched browser waiting in the standby queue
+    *
+    * @param driver       the browser session
+    * @param launchMillis how long the browser took to launch
+    */
+   private record Standby(RemoteWebDriver driver, long launchMillis) {
+   }
+
+   private static final LinkedBlockingQueue<Standby> standbyQueue = new LinkedBlockingQueue<>();
+   private static final AtomicInteger inFlight = new AtomicInteger();
+   private static final AtomicLong hits = new AtomicLong();
+   private static final AtomicLong misses = new AtomicLong();
+   private static final AtomicLong timeSavedMillis = new AtomicLong();
+   private static final AtomicLong failures = new AtomicLong();
+
+   private static ExecutorService executor;
+   private static volatile boolean shutdown;
+
+   /**
+    * Takes a ready browser from the standby queue without blocking and starts
+    * launching its replacement.
+    *
+    * @param launcher creates a new browser session on the background executor
+    * @return a ready browser session, or null if none is waiting
+    */
+   public static RemoteWebDriver take(Supplier<RemoteWebDriver> launcher) {
+      Standby standby = standbyQueue.poll();
+      if (standby == null) {
+         misses.incrementAndGet();
+      } else {
+         hits.incrementAndGet();
+         timeSavedMillis.addAndGet(standby.launchMillis());
+         TestLoggerHolder.getLogger().info("{} {}", "⚡ Standby browser handed over, launch time saved (ms):",
+               standby.launchMillis());
+      }
+      refill(launcher);
+      return standby == null ? null : standby.driver();
+   }
+
+   /**
+    * Takes a ready browser from the standby queue without blocking, for a
+    * thread already waiting for a browser slot. Unlike {@link #take(Supplier)} it
+    * neither counts a miss nor starts a refill.
+    *
+    * @return a ready browser session, or null if none is waiting
+    */
+   public static RemoteWebDriver takeReady() {
+      Standby standby = standbyQueue.poll();
+      if (standby == null) {
+         return null;
+      }
+      hits.incrementAndGet();
+      timeSavedMillis.addAndGet(standby.launchMillis());
+      TestLoggerHolder.getLogger().info("{} {}", "⚡ Standby browser handed over, launch time saved (ms):",
+            standby.launchMillis());
+      return standby.driver();
+   }
+
+   /**
+    * Tops the standby queue back up to the configured depth
+    *
+    * @param launcher creates a new browser session on the background executor
+    */
+   private static synchronized void refill(Supplier<RemoteWebDriver> launcher) {
+      if (shutdown) {
+         return;
+      }
+      if (executor == null) {
+         executor = Executors.newFixedThreadPool(BaseTestConfiguration.getDriverStandbyDepth(), runnable -> {
+            Thread thread = new Thread(runnable, "driver-standby");
+            thread.setDaemon(true);
+            return thread;
+         });
+      }
+      while (standbyQueue.size() + inFlight.get() < BaseTestConfiguration.getDriverStandbyDepth()) {
+         inFlight.incrementAndGet();
+         executor.execute(() -> launch(launcher));
+      }
+   }
+
+   /**
+    * Launches one browser and queues it, if a browser slot is free
+    *
+    * @param launcher creates a new browser session
+    */
+   private static void launch(Supplier<RemoteWebDriver> launcher) {
+      long start = System.currentTimeMillis();
+      long startNanos = System.nanoTime();
+      try {
+         if (!BrowserSlotScheduler.tryAcquire(BaseTestConfiguration.getBrowser())) {
+            return;
+         }
+         RemoteWebDriver driver = launcher.get();
+         DriverStartupProfiler.recordStart(BaseTestConfiguration.getBrowser(), DriverStartupProfiler.Source.BACKGROUND,
+               startNanos);
+         if (shutdown) {
+            DriverManager.quitDriver(driver);
+         } else {
+            BrowserSlotScheduler.park(driver);
+            standbyQueue.add(new Standby(driver, System.currentTimeMillis() - start));
+         }
+      } catch (Exception e) {
+         failures.incrementAndGet();
+         TestLoggerHolder.getLogger().warn("Standby browser could not be launched: " + e.getMessage());
+      } finally {
+         // Only still held if the browser was not queued
+         BrowserSlotScheduler.release();
+         inFlight.decrementAndGet();
+      }
+   }
+
+   /**
+    * Stops launching browsers, quits any still waiting in the queue and logs the
+    * standby statistics. Called when the test run finishes.
+    */
+   public static synchronized void shutdown() {
+      if (executor == null) {
+         return;
+      }
+      String summary = getSummary();
+      shutdown = true;
+      executor.shutdown();
+      try {
+         if (!executor.awaitTermination(60, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+         }
+      } catch (InterruptedException e) {
+         executor.shutdownNow();
+         Thread.currentThread().interrupt();
+      }
+      Standby standby;
+      while ((standby = standbyQueue.poll()) != null) {
+         try {
+            DriverManager.quitDriver(standby.driver());
+         } catch (Exception e) {
+            TestLoggerHolder.getLogger().warn("Error quitting standby browser: " + e.getMessage());
+         }
+      }
+      TestLoggerHolder.getLogger().info(summary);
+   }
+
+   /**
+    * Gets the number of launched browsers waiting in the standby queue
+    *
+    * @return the queue depth
+    */
+   public static int getQueueDepth() {
+      return standbyQueue.size();
+   }
+
+   /**
+    * Gets the fraction of requests served from the standby queue
+    *
+    * @return the hit rate between 0 and 1
+    */
+   public static double getHitRate() {
+      long total = hits.get() + misses.get();
+      return total == 0 ? 0 : (double) hits.get() / total;
+   }
+
+   /**
+    * Gets the total browser launch time scenarios did not have to wait for
+    *
+    * @return the time saved in milliseconds
+    */
+   public static long getTimeSavedMillis() {
+      return timeSavedMillis.get();
+   }
+
+   /**
+    * Gets a one line summary of the standby statistics used to size the queue
+    *
+    * @return the summary
+    */
+   public static String getSummary() {
+      return String.format(
+            "Driver standby: depth %d, hits %d, misses %d, hit rate %.0f%%, launch time saved %d ms, "
+                  + "failed launches %d",
+            getQueueDepth(), hits.get(), misses.get(), getHitRate() * 100, getTimeSavedMillis(), failures.get());
+   }
+}
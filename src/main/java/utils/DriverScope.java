@@ -0,0 +1,151 @@
+package utils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+/**
+ * Decides how long a scenario thread keeps its browser, based on the
+ * {@code driverScope} setting:
+ * <ul>
+ * <li>{@code SCENARIO} - a browser per scenario (the default)</li>
+ * <li>{@code FEATURE} - the browser is kept for the scenarios of a feature file
+ * and quit when the thread moves on to another feature</li>
+ * <li>{@code THREAD} - the browser is kept for the life of the worker thread
+ * and reset (tabs, cookies, storage, page) when the thread moves on to another
+ * feature</li>
+ * <li>{@code RUN} - the browser is kept for the whole run without being reset,
+ * so state such as a login carries over between features</li>
+ * </ul>
+ * A scenario tagged {@value #FRESH_BROWSER_TAG} always starts on a new browser,
+ * which is quit when it finishes. A kept browser whose processes have gone over
+ * the browser memory budget is replaced before the next scenario.
+ */
+public class DriverScope {
+
+   /**
+    * Constructor required for Sonar
+    */
+   private DriverScope() {
+      throw new IllegalStateException("Utility class");
+   }
+
+   /**
+    * How long a browser is kept
+    */
+   public enum Scope {
+      /** One browser per scenario */
+      SCENARIO,
+      /** One browser per feature file on each thread */
+      FEATURE,
+      /** One browser per worker thread, reset between features */
+      THREAD,
+      /** One browser per worker thread for the whole run */
+      RUN
+   }
+
+   /** Forces a new browser for a scenario whatever the scope */
+   public static final String FRESH_BROWSER_TAG = "@FreshBrowser";
+
+   private static final ThreadLocal<String> currentFeature = new ThreadLocal<>();
+   /** Browsers kept between scenarios, so they can be quit when the run ends */
+   private static final Map<Thread, RemoteWebDriver> keptDrivers = new ConcurrentHashMap<>();
+
+   /**
+    * Applies the scope boundary before a scenario starts: quits or resets a
+    * browser kept from the thread's previous scenario if the scope has ended
+    *
+    * @param featureUri the scenario's feature file
+    * @param tags       the scenario tags
+    */
+   public static void beforeScenario(String featureUri, Collection<String> tags) {
+      String previousFeature = currentFeature.get();
+      currentFeature.set(featureUri);
+      RemoteWebDriver kept = keptDrivers.get(Thread.currentThread());
+      if (kept == null || !DriverManager.hasDriver()) {
+         keptDrivers.remove(Thread.currentThread());
+         return;
+      }
+
+      boolean featureChanged = previousFeature != null && !previousFeature.equals(featureUri);
+      Scope scope = getScope();
+      if (DriverProcessRegistry.isOverBudget(kept)) {
+         TestLoggerHolder.getLogger().warn("Kept browser is over its memory budget - closing it");
+         DriverProcessRegistry.recordMemoryRestart();
+         closeKeptDriver();
+      } else if (tags.contains(FRESH_BROWSER_TAG) || scope == Scope.FEATURE && featureChanged) {
+         TestLoggerHolder.getLogger().info("{} {}", "🔁 Driver scope ended, closing the browser:", scope);
+         closeKeptDriver();
+      } else if (scope == Scope.THREAD && featureChanged) {
+         TestLoggerHolder.getLogger().info("Driver scope THREAD: resetting the browser for the next feature");
+         try {
+            DriverPool.reset(kept);
+         } catch (Exception e) {
+            TestLoggerHolder.getLogger().warn("Could not reset the kept browser - closing it: " + e.getMessage());
+            closeKeptDriver();
+         }
+      } else {
+         TestLoggerHolder.getLogger().info("{} {}", "🔁 Reusing the browser kept by driver scope:", scope);
+      }
+   }
+
+   /**
+    * Closes the scenario's browser if its scope has ended, or keeps it for the
+    * next scenario on the thread
+    *
+    * @param tags the scenario tags
+    */
+   public static void afterScenario(Collection<String> tags) {
+      // As it is: a lookup could probe the session or even launch a browser
+      RemoteWebDriver driver = DriverManager.peekDriver();
+      if (driver == null) {
+         return;
+      }
+      if (getScope() == Scope.SCENARIO || tags.contains(FRESH_BROWSER_TAG)) {
+         closeKeptDriver();
+      } else {
+         keptDrivers.put(Thread.currentThread(), driver);
+      }
+   }
+
+   /**
+    * Quits every browser still kept by a driver scope. Called when the test run
+    * finishes, as the worker threads that own the browsers may already be idle.
+    */
+   public static void shutdown() {
+      List<RemoteWebDriver> drivers = new ArrayList<>(keptDrivers.values());
+      keptDrivers.clear();
+      for (RemoteWebDriver driver : drivers) {
+         try {
+            DriverManager.quitDriver(driver);
+         } catch (Exception e) {
+            TestLoggerHolder.getLogger().warn("Error quitting kept browser: " + e.getMessage());
+         }
+      }
+   }
+
+   /**
+    * Gets the configured scope
+    *
+    * @return the scope, SCENARIO if the setting is not recognised
+    */
+   public static Scope getScope() {
+      try {
+         return Scope.valueOf(BaseTestConfiguration.getDriverScope());
+      } catch (IllegalArgumentException e) {
+         return Scope.SCENARIO;
+      }
+   }
+
+   /**
+    * Closes the current thread's browser and stops keeping it
+    */
+   private static void closeKeptDriver() {
+      keptDrivers.remove(Thread.currentThread());
+      DriverManager.closeDriver();
+   }
+}
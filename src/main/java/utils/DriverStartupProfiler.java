@@ -0,0 +1,245 @@
+package utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Records how long each browser session took to start and where the time went.
+ * <p>
+ * Launching a local browser is split into three phases: resolving the driver
+ * binary (Selenium Manager / {@code webdriver.*.driver}), starting the driver
+ * service process, and negotiating the new session (which includes the browser
+ * launch). Every time a scenario gets a browser the total wait is recorded with
+ * its source (new launch, pooled or standby), so the report shows whether
+ * pooling, pre-spawning or profile templates are paying off.
+ * <p>
+ * The report (p50/p95/max per browser, per thread and per phase) is written to
+ * {@value #REPORT_NAME} in the Extent report folder when the run finishes.
+ */
+public class DriverStartupProfiler {
+
+   /**
+    * Constructor required for Sonar
+    */
+   private DriverStartupProfiler() {
+      throw new IllegalStateException("Utility class");
+   }
+
+   /**
+    * The phases of launching a browser session
+    */
+   public enum Phase {
+      /** Locating (or downloading) the driver binary */
+      RESOLVE,
+      /** Starting the driver service process */
+      SERVICE_START,
+      /** Creating the session, including the browser launch */
+      NEW_SESSION
+   }
+
+   /**
+    * Where a scenario's browser came from
+    */
+   public enum Source {
+      /** Launched for the scenario */
+      NEW,
+      /** Leased from the {@link DriverPool} */
+      POOL,
+      /** Taken from the {@link DriverProvisioner} standby queue */
+      STANDBY,
+      /** Launched ahead of time on a standby thread */
+      BACKGROUND
+   }
+
+   /**
+    * One recorded browser start
+    *
+    * @param browser     the browser type
+    * @param thread      the thread that waited for the browser
+    * @param source      where the browser came from
+    * @param phaseMillis the time spent in each launch phase, empty unless the
+    *                    browser was launched
+    * @param totalMillis the total time taken
+    */
+   private record Sample(String browser, String thread, Source source, Map<Phase, Long> phaseMillis,
+         long totalMillis) {
+   }
+
+   private static final String REPORT_NAME = "DriverStartupReport.txt";
+   private static final String ROW_FORMAT = "%-28s %-14s %6s %8s %8s %8s%n";
+
+   private static final List<Sample> samples = Collections.synchronizedList(new ArrayList<>());
+   /** Phase timings of the launch in progress on each thread */
+   private static final ThreadLocal<Map<Phase, Long>> currentPhases = ThreadLocal
+         .withInitial(() -> new EnumMap<>(Phase.class));
+
+   /**
+    * Starts timing a browser launch on the current thread, dropping any phases
+    * left over from a launch that failed
+    */
+   public static void beginLaunch() {
+      currentPhases.remove();
+   }
+
+   /**
+    * Records a launch phase of the browser being started on the current thread
+    *
+    * @param phase      the phase
+    * @param startNanos the {@link System#nanoTime()} the phase started at
+    */
+   public static void recordPhase(Phase phase, long startNanos) {
+      currentPhases.get().merge(phase, (System.nanoTime() - startNanos) / 1_000_000, Long::sum);
+   }
+
+   /**
+    * Records a browser start on the current thread, together with any launch
+    * phases recorded since the last start
+    *
+    * @param browser    the browser type
+    * @param source     where the browser came from
+    * @param startNanos the {@link System#nanoTime()} the start began at
+    */
+   public static void recordStart(String browser, Source source, long startNanos) {
+      Map<Phase, Long> phases = new EnumMap<>(Phase.class);
+      phases.putAll(currentPhases.get());
+      currentPhases.remove();
+      long total = (System.nanoTime() - startNanos) / 1_000_000;
+      samples.add(new Sample(browser.toUpperCase(), Thread.currentThread().getName(), source, phases, total));
+   }
+
+   /**
+    * Gets a one line summary of the time scenarios waited for a browser
+    *
+    * @return the summary
+    */
+   public static String getSummary() {
+      List<Long> waits = scenarioSamples().stream().map(Sample::totalMillis).collect(Collectors.toList());
+      if (waits.isEmpty()) {
+         return "Driver start-up: no browsers started";
+      }
+      return String.format("Driver start-up: %d browsers, p50 %d ms, p95 %d ms, max %d ms - see %s", waits.size(),
+            percentile(waits, 50), percentile(waits, 95), Collections.max(waits), REPORT_NAME);
+   }
+
+   /**
+    * Writes the start-up report to the given folder
+    *
+    * @param folder the report folder
+    */
+   public static void writeReport(String folder) {
+      List<Sample> scenarioSamples = scenarioSamples();
+      if (scenarioSamples.isEmpty()) {
+         return;
+      }
+      List<Sample> launches;
+      synchronized (samples) {
+         launches = samples.stream().filter(s -> !s.phaseMillis().isEmpty()).collect(Collectors.toList());
+      }
+
+      StringBuilder report = new StringBuilder("Driver start-up report (all times in ms)");
+      report.append(System.lineSeparator()).append(System.lineSeparator())
+            .append("Time scenarios waited for a browser, per browser and source")
+            .append(System.lineSeparator());
+      appendTable(report, "Browser", "Source", scenarioSamples, Sample::browser, s -> s.source().name());
+
+      report.append(System.lineSeparator()).append("Time scenarios waited for a browser, per thread")
+            .append(System.lineSeparator());
+      appendTable(report, "Thread", "Browser", scenarioSamples, Sample::thread, Sample::browser);
+
+      report.append(System.lineSeparator())
+            .append("Launch phases, per browser (launches for scenarios and on standby threads)")
+            .append(System.lineSeparator());
+      report.append(String.format(ROW_FORMAT, "Browser", "Phase", "Count", "p50", "p95", "max"));
+      Map<String, List<Sample>> launchesByBrowser = launches.stream()
+            .collect(Collectors.groupingBy(Sample::browser, TreeMap::new, Collectors.toList()));
+      launchesByBrowser.forEach((browser, browserLaunches) -> {
+         for (Phase phase : Phase.values()) {
+            List<Long> times = browserLaunches.stream().filter(s -> s.phaseMillis().containsKey(phase))
+                  .map(s -> s.phaseMillis().get(phase)).collect(Collectors.toList());
+            appendRow(report, browser, phase.name(), times);
+         }
+         appendRow(report, browser, "TOTAL", browserLaunches.stream().map(Sample::totalMillis)
+               .collect(Collectors.toList()));
+      });
+
+      Path reportFile = Paths.get(folder, REPORT_NAME);
+      try {
+         Files.writeString(reportFile, report.toString(), StandardCharsets.UTF_8);
+         TestLoggerHolder.getLogger().info("{} {}", "Driver start-up report written to:", reportFile);
+      } catch (IOException e) {
+         TestLoggerHolder.getLogger().warn("Driver start-up report not written: " + e.getMessage());
+      }
+   }
+
+   /**
+    * Gets the samples of browsers handed to scenarios (not standby launches)
+    *
+    * @return the samples
+    */
+   private static List<Sample> scenarioSamples() {
+      synchronized (samples) {
+         return samples.stream().filter(s -> s.source() != Source.BACKGROUND).collect(Collectors.toList());
+      }
+   }
+
+   /**
+    * Appends a table of timings grouped by two keys
+    *
+    * @param report      the report
+    * @param firstTitle  the first column title
+    * @param secondTitle the second column title
+    * @param rows        the samples
+    * @param firstKey    gets the first grouping key
+    * @param secondKey   gets the second grouping key
+    */
+   private static void appendTable(StringBuilder report, String firstTitle, String secondTitle, List<Sample> rows,
+         Function<Sample, String> firstKey, Function<Sample, String> secondKey) {
+      report.append(String.format(ROW_FORMAT, firstTitle, secondTitle, "Count", "p50", "p95", "max"));
+      Map<String, Map<String, List<Long>>> grouped = rows.stream()
+            .collect(Collectors.groupingBy(firstKey, TreeMap::new, Collectors.groupingBy(secondKey, TreeMap::new,
+                  Collectors.mapping(Sample::totalMillis, Collectors.toList()))));
+      grouped.forEach((first, bySecond) -> bySecond.forEach((second, times) -> appendRow(report, first, second,
+            times)));
+   }
+
+   /**
+    * Appends one row of timings
+    *
+    * @param report the report
+    * @param first  the first column
+    * @param second the second column
+    * @param times  the timings
+    */
+   private static void appendRow(StringBuilder report, String first, String second, List<Long> times) {
+      if (times.isEmpty()) {
+         return;
+      }
+      report.append(String.format(ROW_FORMAT, first, second, times.size(), percentile(times, 50),
+            percentile(times, 95), Collections.max(times)));
+   }
+
+   /**
+    * Gets a nearest-rank percentile
+    *
+    * @param times      the timings
+    * @param percentile the percentile (0-100)
+    * @return the timing at the percentile
+    */
+   private static long percentile(List<Long> times, int percentile) {
+      List<Long> sorted = new ArrayList<>(times);
+      Collections.sort(sorted);
+      int rank = (int) Math.ceil(percentile / 100.0 * sorted.size());
+      return sorted.get(Math.max(0, rank - 1));
+   }
+}
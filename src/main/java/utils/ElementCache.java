@@ -0,0 +1,113 @@
+package utils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+/**
+ * Remembers the elements a page object has found, keyed by string locator, so
+ * that consecutive actions on the same element do not find it again.
+ * <p>
+ * Caching is opt in per page object (see
+ * {@code BasePageClass#useElementCache()}). A cached element is still checked
+ * against the wait condition before it is used, only the find is skipped. The
+ * cache is dropped when the page object's thread navigates or switches frame
+ * through the page objects (which bump the thread's generation), when the
+ * thread's browser changes, and per element when using it throws a
+ * {@link org.openqa.selenium.StaleElementReferenceException}, e.g. after a
+ * click navigated away.
+ */
+public class ElementCache {
+
+   private static final ThreadLocal<long[]> generation = ThreadLocal.withInitial(() -> new long[1]);
+   private static final ThreadLocal<long[]> scenarioFindsSaved = ThreadLocal.withInitial(() -> new long[1]);
+   private static final AtomicLong runFindsSaved = new AtomicLong();
+
+   private final Map<String, WebElement> elements = new ConcurrentHashMap<>();
+   private RemoteWebDriver cachedDriver;
+   private long cachedGeneration;
+
+   /**
+    * Gets a cached element, counting the find it saves
+    *
+    * @param strElement the string locator
+    * @param driver     the current thread's browser
+    * @return the element, or null if it is not cached or the cache is out of
+    *         date
+    */
+   public WebElement get(String strElement, RemoteWebDriver driver) {
+      if (cachedDriver != driver || cachedGeneration != generation.get()[0]) {
+         elements.clear();
+         cachedDriver = driver;
+         cachedGeneration = generation.get()[0];
+         return null;
+      }
+      WebElement element = elements.get(strElement);
+      if (element != null) {
+         scenarioFindsSaved.get()[0]++;
+         runFindsSaved.incrementAndGet();
+      }
+      return element;
+   }
+
+   /**
+    * Caches an element that has just been found
+    *
+    * @param strElement the string locator
+    * @param element    the element
+    * @return the element
+    */
+   public WebElement put(String strElement, WebElement element) {
+      if (element != null) {
+         elements.put(strElement, element);
+      }
+      return element;
+   }
+
+   /**
+    * Drops a cached element, e.g. because it has gone stale
+    *
+    * @param strElement the string locator
+    */
+   public void invalidate(String strElement) {
+      elements.remove(strElement);
+   }
+
+   /**
+    * Drops the elements cached by every page object on the current thread.
+    * Called when the thread navigates or switches frame.
+    */
+   public static void invalidateAll() {
+      generation.get()[0]++;
+   }
+
+   /**
+    * Gets and resets the number of finds the cache saved in the current thread's
+    * scenario
+    *
+    * @return a one line summary, or null if nothing was saved
+    */
+   public static String finishScenario() {
+      long saved = scenarioFindsSaved.get()[0];
+      scenarioFindsSaved.get()[0] = 0;
+      invalidateAll();
+      if (saved == 0) {
+         return null;
+      }
+      String summary = String.format("⚡ Element cache saved %d find element calls", saved);
+      TestLoggerHolder.getLogger().info(summary);
+      return summary;
+   }
+
+   /**
+    * Gets a one line summary of the finds saved over the run
+    *
+    * @return the summary
+    */
+   public static String getSummary() {
+      return String.format("Element cache: %d find element calls saved", runFindsSaved.get());
+   }
+}
@@ -0,0 +1,134 @@
+package utils;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.remote.Augmenter;
+import org.openqa.selenium.remote.HttpCommandExecutor;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * Creates {@link RemoteWebDriver} sessions against one or more Selenium Grid or
+ * standalone servers listed in the {@code gridUrls} setting.
+ * <p>
+ * Before each session the {@code /status} endpoint of every server is read and
+ * the servers are tried from the least to the most loaded. Saturated or
+ * unreachable servers are tried last, and if session creation fails on one
+ * server the next one is tried.
+ */
+public class GridNodeSelector {
+
+   /**
+    * Constructor required for Sonar
+    */
+   private GridNodeSelector() {
+      throw new IllegalStateException("Utility class");
+   }
+
+   private static final int STATUS_TIMEOUT_MILLIS = 2000;
+
+   /**
+    * The load of a grid server at the time it was checked
+    *
+    * @param url        the grid server URL
+    * @param freeSlots  the number of idle slots, or -1 if the status could not
+    *                   be read
+    * @param totalSlots the total number of slots
+    */
+   private record NodeLoad(String url, int freeSlots, int totalSlots) {
+
+      /**
+       * Gets the fraction of the slots in use. Unreachable servers sort last.
+       *
+       * @return the load
+       */
+      double load() {
+         return freeSlots < 0 || totalSlots == 0 ? 2 : 1 - (double) freeSlots / totalSlots;
+      }
+   }
+
+   /**
+    * Creates a remote session on the least loaded grid server, moving on to the
+    * next server if session creation fails.
+    *
+    * @param options the browser options to request
+    * @return the remote session, augmented so browser specific interfaces (e.g.
+    *         DevTools) are available
+    */
+   public static RemoteWebDriver createRemoteDriver(Capabilities options) {
+      List<NodeLoad> nodes = BaseTestConfiguration.getGridUrls().stream().map(GridNodeSelector::readLoad)
+            .sorted(Comparator.comparingDouble(NodeLoad::load)).collect(Collectors.toList());
+
+      RuntimeException lastError = null;
+      for (NodeLoad node : nodes) {
+         try {
+            TestLoggerHolder.getLogger().info("Requesting remote {} session from {} (free slots {}/{})",
+                  options.getBrowserName(), node.url(), node.freeSlots(), node.totalSlots());
+            RemoteWebDriver driver = new RemoteWebDriver(
+                  new HttpCommandExecutor(SessionHealthTracker.getClientConfig().baseUri(URI.create(node.url()))),
+                  options);
+            return (RemoteWebDriver) new Augmenter().augment(driver);
+         } catch (Exception e) {
+            TestLoggerHolder.getLogger()
+                  .warn("Session creation failed on " + node.url() + ", trying the next node: " + e.getMessage());
+            lastError = new SessionNotCreatedException("Session creation failed on " + node.url(), e);
+         }
+      }
+      throw lastError != null ? lastError
+            : new IllegalStateException("No grid URLs configured - set gridUrls in run.properties");
+   }
+
+   /**
+    * Reads the slot usage of a grid server from its status endpoint
+    *
+    * @param gridUrl the grid server URL
+    * @return the load of the server
+    */
+   private static NodeLoad readLoad(String gridUrl) {
+      try {
+         URL statusUrl = URI.create(gridUrl.replaceAll("/+$", "") + "/status").toURL();
+         HttpURLConnection conn = (HttpURLConnection) statusUrl.openConnection();
+         conn.setConnectTimeout(STATUS_TIMEOUT_MILLIS);
+         conn.setReadTimeout(STATUS_TIMEOUT_MILLIS);
+         if (conn.getResponseCode() != 200) {
+            return new NodeLoad(gridUrl, -1, 0);
+         }
+
+         try (BufferedReader reader = new BufferedReader(
+               new InputStreamReader(conn.getInputStream(), StandardCharsets.UTF_8))) {
+            JsonObject value = new JsonParser().parse(reader).getAsJsonObject().getAsJsonObject("value");
+            if (!value.has("nodes")) {
+               return new NodeLoad(gridUrl, value.get("ready").getAsBoolean() ? 1 : 0, 1);
+            }
+            int free = 0;
+            int total = 0;
+            for (JsonElement node : value.getAsJsonArray("nodes")) {
+               for (JsonElement slot : node.getAsJsonObject().getAsJsonArray("slots")) {
+                  total++;
+                  JsonElement session = slot.getAsJsonObject().get("session");
+                  if (session == null || session.isJsonNull()) {
+                     free++;
+                  }
+               }
+            }
+            return new NodeLoad(gridUrl, free, total);
+         }
+      } catch (Exception e) {
+         TestLoggerHolder.getLogger().warn("Could not read grid status from " + gridUrl + ": " + e.getMessage());
+         return new NodeLoad(gridUrl, -1, 0);
+      }
+   }
+}
@@ -0,0 +1,224 @@
+package utils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import org.openqa.selenium.By;
+
+/**
+ * Parses the {@code type::value} string locators used by the page objects
+ * (e.g. {@code css::#errorBox}) into {@link By} locators, once per string.
+ * <p>
+ * Page objects keep their locators in static string constants, so the same
+ * strings are looked up on every element access. Parsed locators are kept in a
+ * concurrent map, up to {@value #MAX_ENTRIES} of them so that locators built
+ * on the fly (e.g. from test data) cannot grow it without limit. The locator
+ * constants of a page object class are checked when its first instance is
+ * created, so a malformed locator fails the page object rather than the step
+ * that first uses it.
+ */
+public class LocatorRegistry {
+
+   /**
+    * Constructor required for Sonar
+    */
+   private LocatorRegistry() {
+      throw new IllegalStateException("Utility class");
+   }
+
+   /**
+    * The supported locator types and the names they can be written with
+    */
+   public enum LocatorKind {
+      /** id:: */
+      ID(By::id, "id"),
+      /** class:: or classname:: */
+      CLASS_NAME(By::className, "classname", "class"),
+      /** link:: or linktext:: */
+      LINK_TEXT(By::linkText, "linktext", "link"),
+      /** partiallinktext:: */
+      PARTIAL_LINK_TEXT(By::partialLinkText, "partiallinktext"),
+      /** css:: or cssselector:: */
+      CSS(By::cssSelector, "cssselector", "css"),
+      /** xpath:: */
+      XPATH(By::xpath, "xpath"),
+      /** name:: */
+      NAME(By::name, "name"),
+      /** tagName:: */
+      TAG_NAME(By::tagName, "tagname");
+
+      private final Function<String, By> factory;
+      private final Set<String> names;
+
+      LocatorKind(Function<String, By> factory, String... names) {
+         this.factory = factory;
+         this.names = Set.of(names);
+      }
+
+      /**
+       * Gets the locator kind written as the given type
+       *
+       * @param type the type part of a string locator
+       * @return the locator kind
+       * @throws IllegalArgumentException if the type is not recognised
+       */
+      public static LocatorKind fromType(String type) {
+         String lowerCaseType = type.toLowerCase();
+         for (LocatorKind kind : values()) {
+            if (kind.names.contains(lowerCaseType)) {
+               return kind;
+            }
+         }
+         throw new IllegalArgumentException("Unknown locator type '" + type + "'");
+      }
+
+      /**
+       * Checks whether a type is one of the locator types
+       *
+       * @param type the type part of a string locator
+       * @return true if the type is recognised
+       */
+      public static boolean isType(String type) {
+         String lowerCaseType = type.toLowerCase();
+         for (LocatorKind kind : values()) {
+            if (kind.names.contains(lowerCaseType)) {
+               return true;
+            }
+         }
+         return false;
+      }
+   }
+
+   /**
+    * A parsed string locator
+    *
+    * @param kind  the locator kind
+    * @param value the locator value (selector, id, xpath, ...)
+    * @param by    the Selenium locator
+    */
+   public record Locator(LocatorKind kind, String value, By by) {
+   }
+
+   private static final String SEPARATOR = "::";
+   private static final int MAX_ENTRIES = 10_000;
+
+   private static final Map<String, Locator> locators = new ConcurrentHashMap<>();
+   private static final Set<Class<?>> validatedClasses = ConcurrentHashMap.newKeySet();
+   private static final LongAdder hits = new LongAdder();
+   private static final LongAdder misses = new LongAdder();
+
+   /**
+    * Gets the parsed form of a string locator
+    *
+    * @param strElement the type and value separated by ::
+    * @return the parsed locator
+    * @throws IllegalArgumentException if the locator is malformed
+    */
+   public static Locator get(String strElement) {
+      Locator locator = locators.get(strElement);
+      if (locator != null) {
+         hits.increment();
+         return locator;
+      }
+      misses.increment();
+      locator = parse(strElement);
+      if (locators.size() < MAX_ENTRIES) {
+         locators.putIfAbsent(strElement, locator);
+      }
+      return locator;
+   }
+
+   /**
+    * Checks the static string locator constants of a page object class and its
+    * super classes, once per class. A constant that looks like a locator but
+    * does not start with a locator type (e.g. a message template holding ::) is
+    * only logged, as it may not be a locator at all.
+    *
+    * @param pageClass the page object class
+    * @throws IllegalArgumentException listing every malformed locator constant
+    */
+   public static void validate(Class<?> pageClass) {
+      if (validatedClasses.contains(pageClass)) {
+         return;
+      }
+      List<String> errors = new ArrayList<>();
+      for (Class<?> type = pageClass; type != null && type != Object.class; type = type.getSuperclass()) {
+         for (Field field : type.getDeclaredFields()) {
+            String value = getLocatorConstant(field);
+            if (value == null) {
+               continue;
+            }
+            String prefix = value.substring(0, value.indexOf(SEPARATOR));
+            if (!LocatorKind.isType(prefix)) {
+               TestLoggerHolder.getLogger().warn("{}.{} is not checked as a locator, '{}' is not a locator type",
+                     type.getSimpleName(), field.getName(), prefix);
+               continue;
+            }
+            try {
+               get(value);
+            } catch (IllegalArgumentException e) {
+               errors.add(type.getSimpleName() + "." + field.getName() + " (" + e.getMessage() + ")");
+            }
+         }
+      }
+      if (!errors.isEmpty()) {
+         throw new IllegalArgumentException("Malformed locators in " + pageClass.getName() + ": " + errors);
+      }
+      validatedClasses.add(pageClass);
+   }
+
+   /**
+    * Gets a one line summary of the locator lookups
+    *
+    * @return the summary
+    */
+   public static String getSummary() {
+      return String.format("Locators: %d cached, %d lookups hit the cache, %d missed and were parsed",
+            locators.size(), hits.sum(), misses.sum());
+   }
+
+   /**
+    * Parses a string locator
+    *
+    * @param strElement the type and value separated by ::
+    * @return the parsed locator
+    */
+   private static Locator parse(String strElement) {
+      int separator = strElement == null ? -1 : strElement.indexOf(SEPARATOR);
+      if (separator <= 0 || separator + SEPARATOR.length() == strElement.length()) {
+         throw new IllegalArgumentException("Locator '" + strElement + "' is not in the form type::value");
+      }
+      // The value may hold :: itself, e.g. an xpath axis
+      String value = strElement.substring(separator + SEPARATOR.length());
+      LocatorKind kind = LocatorKind.fromType(strElement.substring(0, separator));
+      return new Locator(kind, value, kind.factory.apply(value));
+   }
+
+   /**
+    * Gets the value of a static string constant that holds a locator. Prefix
+    * constants such as {@code "tagName::"} are not locators on their own.
+    *
+    * @param field the field
+    * @return the locator, or null if the field is not a locator constant
+    */
+   private static String getLocatorConstant(Field field) {
+      int modifiers = field.getModifiers();
+      if (!Modifier.isStatic(modifiers) || !Modifier.isFinal(modifiers) || field.getType() != String.class) {
+         return null;
+      }
+      try {
+         field.setAccessible(true);
+         String value = (String) field.get(null);
+         return value != null && value.matches("\\w+::.*\\S.*") ? value : null;
+      } catch (ReflectiveOperationException | RuntimeException e) {
+         return null;
+      }
+   }
+}
@@ -0,0 +1,210 @@
+package utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Records how long the page object waits and finds take, per page object class
+ * and locator, so that the slowest locators and those that time out most can be
+ * found and fixed.
+ * <p>
+ * Each thread records into its own map of histograms (count, outcomes, total,
+ * max and power of two millisecond buckets), so recording takes no shared
+ * lock. The maps are merged when the run finishes and the report is written to
+ * {@value #REPORT_NAME} in the Extent report folder and shown in the report's
+ * log view (not as a test, so the test counts are unchanged).
+ */
+public class LocatorTimings {
+
+   /**
+    * Constructor required for Sonar
+    */
+   private LocatorTimings() {
+      throw new IllegalStateException("Utility class");
+   }
+
+   /**
+    * How a wait or find ended
+    */
+   public enum Outcome {
+      /** The element was found or the condition held */
+      FOUND,
+      /** The wait timed out (or the element was not there) */
+      TIMEOUT,
+      /** Any other failure, e.g. a stale element */
+      ERROR
+   }
+
+   /**
+    * A page object and locator
+    *
+    * @param page    the page object class
+    * @param locator the string locator
+    */
+   private record Key(String page, String locator) {
+   }
+
+   /**
+    * The timings of one page object and locator
+    */
+   private static final class Histogram {
+      private long count;
+      private long timeouts;
+      private long errors;
+      private long totalNanos;
+      private long maxNanos;
+      /** Bucket 0 is under 1 ms, bucket n is 2^(n-1) to 2^n ms */
+      private final long[] buckets = new long[BUCKETS];
+
+      void add(long nanos, Outcome outcome) {
+         count++;
+         totalNanos += nanos;
+         maxNanos = Math.max(maxNanos, nanos);
+         if (outcome == Outcome.TIMEOUT) {
+            timeouts++;
+         } else if (outcome == Outcome.ERROR) {
+            errors++;
+         }
+         long millis = nanos / 1_000_000;
+         int bucket = millis == 0 ? 0 : Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(millis));
+         buckets[bucket]++;
+      }
+
+      void merge(Histogram other) {
+         count += other.count;
+         timeouts += other.timeouts;
+         errors += other.errors;
+         totalNanos += other.totalNanos;
+         maxNanos = Math.max(maxNanos, other.maxNanos);
+         for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] += other.buckets[i];
+         }
+      }
+
+      /**
+       * Gets the upper bound of the bucket holding a percentile
+       *
+       * @param percentile the percentile (0-100)
+       * @return the time in ms, capped at the max
+       */
+      long percentileMillis(int percentile) {
+         long rank = (long) Math.ceil(percentile / 100.0 * count);
+         long seen = 0;
+         for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets[i];
+            if (seen >= rank) {
+               return Math.min(1L << i, maxNanos / 1_000_000);
+            }
+         }
+         return maxNanos / 1_000_000;
+      }
+   }
+
+   private static final String REPORT_NAME = "LocatorTimingReport.txt";
+   private static final String ROW_FORMAT = "%-24s %-50s %6s %8s %6s %9s %7s %7s %7s%n";
+   private static final int BUCKETS = 20;
+   private static final int TOP = 20;
+
+   /** Every thread's map, so that they can be merged at the end of the run */
+   private static final ConcurrentLinkedQueue<Map<Key, Histogram>> allHistograms = new ConcurrentLinkedQueue<>();
+   private static final ThreadLocal<Map<Key, Histogram>> threadHistograms = ThreadLocal.withInitial(() -> {
+      Map<Key, Histogram> histograms = new HashMap<>();
+      allHistograms.add(histograms);
+      return histograms;
+   });
+
+   /**
+    * Records a wait or find
+    *
+    * @param page       the page object class
+    * @param strElement the string locator (or what was waited for, e.g. an alert)
+    * @param startNanos the {@link System#nanoTime()} when the wait started
+    * @param outcome    how the wait ended
+    */
+   public static void record(Class<?> page, String strElement, long startNanos, Outcome outcome) {
+      long nanos = System.nanoTime() - startNanos;
+      Map<Key, Histogram> histograms = threadHistograms.get();
+      // Only contended while the report is being merged
+      synchronized (histograms) {
+         histograms.computeIfAbsent(new Key(page.getSimpleName(), strElement), key -> new Histogram()).add(nanos,
+               outcome);
+      }
+   }
+
+   /**
+    * Writes the slowest locators and the locators with the most timeouts to the
+    * report folder
+    *
+    * @param folder the Extent report folder
+    * @return the report, or null if nothing was recorded
+    */
+   public static String writeReport(String folder) {
+      Map<Key, Histogram> merged = new HashMap<>();
+      for (Map<Key, Histogram> histograms : allHistograms) {
+         synchronized (histograms) {
+            histograms.forEach((key, histogram) -> merged.computeIfAbsent(key, k -> new Histogram()).merge(histogram));
+         }
+      }
+      if (merged.isEmpty()) {
+         return null;
+      }
+
+      StringBuilder report = new StringBuilder("Page object wait/find timings (all times in ms)");
+      report.append(System.lineSeparator()).append(System.lineSeparator())
+            .append("Slowest locators (by p95)").append(System.lineSeparator());
+      appendTable(report, merged, Comparator.comparingLong((Histogram h) -> h.percentileMillis(95))
+            .thenComparingLong(h -> h.totalNanos));
+      report.append(System.lineSeparator()).append("Most timeouts").append(System.lineSeparator());
+      appendTable(report, merged, Comparator.comparingLong((Histogram h) -> h.timeouts)
+            .thenComparingLong(h -> h.totalNanos));
+      report.append(System.lineSeparator()).append("Most total time").append(System.lineSeparator());
+      appendTable(report, merged, Comparator.comparingLong((Histogram h) -> h.totalNanos));
+
+      Path reportFile = Paths.get(folder, REPORT_NAME);
+      try {
+         Files.writeString(reportFile, report.toString(), StandardCharsets.UTF_8);
+         TestLoggerHolder.getLogger().info("{} {}", "Locator timing report written to:", reportFile);
+      } catch (IOException e) {
+         TestLoggerHolder.getLogger().warn("Locator timing report not written: " + e.getMessage());
+      }
+      return report.toString();
+   }
+
+   /**
+    * Appends the top rows of the timings, in descending order
+    *
+    * @param report the report
+    * @param merged the timings of the run
+    * @param order  the order, ascending
+    */
+   private static void appendTable(StringBuilder report, Map<Key, Histogram> merged, Comparator<Histogram> order) {
+      report.append(String.format(ROW_FORMAT, "Page", "Locator", "Count", "Timeouts", "Errors", "Total", "p50", "p95",
+            "max"));
+      List<Map.Entry<Key, Histogram>> rows = merged.entrySet().stream()
+            .sorted(Map.Entry.<Key, Histogram>comparingByValue(order).reversed()).limit(TOP).toList();
+      for (Map.Entry<Key, Histogram> row : rows) {
+         Histogram h = row.getValue();
+         report.append(String.format(ROW_FORMAT, row.getKey().page(), abbreviate(row.getKey().locator()), h.count,
+               h.timeouts, h.errors, h.totalNanos / 1_000_000, h.percentileMillis(50), h.percentileMillis(95),
+               h.maxNanos / 1_000_000));
+      }
+   }
+
+   /**
+    * Shortens a long locator to fit its column
+    *
+    * @param locator the locator
+    * @return the locator, at most 50 characters
+    */
+   private static String abbreviate(String locator) {
+      return locator.length() <= 50 ? locator : locator.substring(0, 47) + "...";
+   }
+}
@@ -0,0 +1,209 @@
+package utils;
+
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeDriverService;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.devtools.v130.browser.model.BrowserContextID;
+import org.openqa.selenium.devtools.v130.target.Target;
+import org.openqa.selenium.devtools.v130.target.model.TargetID;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+/**
+ * Runs several scenarios in one Chrome process, each in its own isolated
+ * browser context (separate cookies, storage and cache, like an incognito
+ * window).
+ * <p>
+ * One host browser is launched for the run. For each scenario a browser
+ * context and a window in it are created through the DevTools Target domain,
+ * and a {@link ChromeDriver} session is attached to the host browser (through
+ * its {@code debuggerAddress}) and switched to that window. Scenario threads
+ * still get their own {@link RemoteWebDriver}, but
+ * {@link RemoteWebDriver#getWindowHandles()} only returns the windows of the
+ * scenario's own context and {@link RemoteWebDriver#quit()} closes the context
+ * rather than the browser.
+ */
+public class MultiContextBrowser {
+
+   /**
+    * Constructor required for Sonar
+    */
+   private MultiContextBrowser() {
+      throw new IllegalStateException("Utility class");
+   }
+
+   /**
+    * A Chrome session attached to the host browser and limited to one browser
+    * context
+    */
+   private static final class ContextDriver extends ChromeDriver {
+      private final BrowserContextID contextId;
+
+      /**
+       * Attaches a session to the host browser
+       *
+       * @param service   the driver service for the session
+       * @param options   options holding the host's debugger address
+       * @param contextId the scenario's browser context
+       */
+      ContextDriver(ChromeDriverService service, ChromeOptions options, BrowserContextID contextId) {
+         super(service, options, SessionHealthTracker.getClientConfig());
+         this.contextId = contextId;
+      }
+
+      @Override
+      public Set<String> getWindowHandles() {
+         Set<String> ownTargets = getContextTargets(contextId);
+         return super.getWindowHandles().stream().filter(handle -> ownTargets.contains(toTargetId(handle)))
+               .collect(Collectors.toCollection(LinkedHashSet::new));
+      }
+
+      @Override
+      public void quit() {
+         try {
+            disposeContext(contextId);
+         } finally {
+            // An attached session leaves the browser itself running
+            super.quit();
+         }
+      }
+   }
+
+   private static RemoteWebDriver host;
+   private static String debuggerAddress;
+
+   /**
+    * Creates a browser context in the host browser and a session attached to it,
+    * launching the host browser first if it is not running
+    *
+    * @param hostFactory launches the host browser
+    * @return the scenario's session
+    */
+   public static RemoteWebDriver newContextDriver(Supplier<RemoteWebDriver> hostFactory) {
+      DevTools devTools = getHostDevTools(hostFactory);
+      BrowserContextID contextId = devTools.send(
+            Target.createBrowserContext(Optional.of(false), Optional.empty(), Optional.empty(), Optional.empty()));
+      ContextDriver driver = null;
+      try {
+         TargetID targetId = devTools.send(Target.createTarget("about:blank", Optional.empty(), Optional.empty(),
+               Optional.of(contextId), Optional.empty(), Optional.of(true), Optional.empty(), Optional.empty()));
+
+         ChromeOptions options = new ChromeOptions();
+         options.setExperimentalOption("debuggerAddress", debuggerAddress);
+         ChromeDriverService service = ChromeDriverService.createDefaultService();
+         driver = new ContextDriver(service, options, contextId);
+         DriverProcessRegistry.register(driver, service);
+         String handle = driver.getWindowHandles().stream()
+               .filter(h -> toTargetId(h).equals(targetId.toString())).findFirst()
+               .orElseThrow(() -> new IllegalStateException("Browser context window not found: " + targetId));
+         driver.switchTo().window(handle);
+         TestLoggerHolder.getLogger().info("{} {}", "🪟 Browser context created in the shared browser:", contextId);
+         return driver;
+      } catch (RuntimeException e) {
+         if (driver != null) {
+            driver.quit();
+         } else {
+            disposeContext(contextId);
+         }
+         throw e;
+      }
+   }
+
+   /**
+    * Quits the host browser. Called when the test run finishes.
+    */
+   public static synchronized void shutdown() {
+      if (host != null) {
+         try {
+            DriverManager.quitDriver(host);
+         } catch (Exception e) {
+            TestLoggerHolder.getLogger().warn("Error quitting the shared browser: " + e.getMessage());
+         }
+         host = null;
+      }
+   }
+
+   /**
+    * Gets a DevTools connection to the host browser (not to one of its pages),
+    * launching the host browser if it is not running or has died
+    *
+    * @param hostFactory launches the host browser
+    * @return the browser level DevTools connection
+    */
+   @SuppressWarnings("unchecked")
+   private static synchronized DevTools getHostDevTools(Supplier<RemoteWebDriver> hostFactory) {
+      if (host != null) {
+         try {
+            host.getWindowHandle();
+         } catch (Exception e) {
+            TestLoggerHolder.getLogger().warn("Shared browser is not responding - launching a new one");
+            shutdown();
+         }
+      }
+      if (host == null) {
+         host = hostFactory.get();
+         Map<String, Object> chromeOptions = (Map<String, Object>) host.getCapabilities()
+               .getCapability("goog:chromeOptions");
+         debuggerAddress = String.valueOf(chromeOptions.get("debuggerAddress"));
+         TestLoggerHolder.getLogger().info("{} {}", "🪟 Shared browser launched for browser contexts at:",
+               debuggerAddress);
+      }
+      return ((HasDevTools) host).getDevTools();
+   }
+
+   /**
+    * Gets the page targets that belong to a browser context
+    *
+    * @param contextId the browser context
+    * @return the target ids
+    */
+   private static Set<String> getContextTargets(BrowserContextID contextId) {
+      DevTools devTools;
+      synchronized (MultiContextBrowser.class) {
+         devTools = ((HasDevTools) host).getDevTools();
+      }
+      return devTools.send(Target.getTargets(Optional.empty())).stream()
+            .filter(info -> "page".equals(info.getType())
+                  && info.getBrowserContextId().map(id -> id.toString().equals(contextId.toString())).orElse(false))
+            .map(info -> info.getTargetId().toString()).collect(Collectors.toSet());
+   }
+
+   /**
+    * Closes a browser context and all of its windows
+    *
+    * @param contextId the browser context
+    */
+   private static void disposeContext(BrowserContextID contextId) {
+      RemoteWebDriver currentHost;
+      synchronized (MultiContextBrowser.class) {
+         currentHost = host;
+      }
+      if (currentHost == null) {
+         return;
+      }
+      try {
+         ((HasDevTools) currentHost).getDevTools().send(Target.disposeBrowserContext(contextId));
+      } catch (Exception e) {
+         TestLoggerHolder.getLogger().warn("Error closing browser context " + contextId + ": " + e.getMessage());
+      }
+   }
+
+   /**
+    * Gets the DevTools target id of a window handle. Older ChromeDriver versions
+    * prefix the target id.
+    *
+    * @param handle the window handle
+    * @return the target id
+    */
+   private static String toTargetId(String handle) {
+      return handle.startsWith("CDwindow-") ? handle.substring("CDwindow-".length()) : handle;
+   }
+}
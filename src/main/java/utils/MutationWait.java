@@ -0,0 +1,221 @@
+package utils;
+
+import java.time.Duration;
+
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+/**
+ * Waits for a DOM condition inside the browser: a {@code MutationObserver} is
+ * injected through {@code executeAsyncScript} and the script returns as soon as
+ * a change to the page makes the condition hold (or the timeout passes). This
+ * replaces fixed sleeps and polling with one round trip that ends when the page
+ * is ready.
+ * <p>
+ * Long waits are split into chunks of at most {@value #CHUNK_MILLIS} ms so that
+ * no single script runs into the driver's script timeout. A chunk that fails
+ * because the page navigated away is retried on the new page.
+ */
+public class MutationWait {
+
+   /**
+    * Constructor required for Sonar
+    */
+   private MutationWait() {
+      throw new IllegalStateException("Utility class");
+   }
+
+   /**
+    * A condition on the elements matching a string locator
+    *
+    * @param type      the check the script makes
+    * @param attribute the attribute for ATTRIBUTE_EQUALS
+    * @param expected  the text or attribute value expected
+    */
+   public record DomCondition(String type, String attribute, String expected) {
+
+      /**
+       * @return a condition that holds when an element matches
+       */
+      public static DomCondition present() {
+         return new DomCondition("PRESENT", null, null);
+      }
+
+      /**
+       * @return a condition that holds when no element matches
+       */
+      public static DomCondition absent() {
+         return new DomCondition("ABSENT", null, null);
+      }
+
+      /**
+       * @param text the expected text
+       * @return a condition that holds when a matching element's text contains the
+       *         text
+       */
+      public static DomCondition textContains(String text) {
+         return new DomCondition("TEXT_CONTAINS", null, text);
+      }
+
+      /**
+       * @param text the expected text
+       * @return a condition that holds when a matching element's text contains the
+       *         text, ignoring case
+       */
+      public static DomCondition textContainsIgnoreCase(String text) {
+         return new DomCondition("TEXT_CONTAINS_IGNORE_CASE", null, text);
+      }
+
+      /**
+       * @return a condition that holds when a matching element has text, so a
+       *         leading blank item does not hold it up
+       */
+      public static DomCondition textPopulated() {
+         return new DomCondition("TEXT_POPULATED", null, null);
+      }
+
+      /**
+       * @param attribute the attribute name
+       * @param value     the expected value
+       * @return a condition that holds when a matching element's attribute has the
+       *         value
+       */
+      public static DomCondition attributeEquals(String attribute, String value) {
+         return new DomCondition("ATTRIBUTE_EQUALS", attribute, value);
+      }
+   }
+
+   /**
+    * A JavaScript function {@code findElements(root, kind, value)} that finds the
+    * elements matching a locator parsed by {@link LocatorRegistry}, the same way
+    * the matching {@link org.openqa.selenium.By} would
+    */
+   public static final String FIND_ELEMENTS_FUNCTION = """
+         function findElements(root, kind, value) {
+            if (kind === 'XPATH') {
+               var found = [];
+               var result = document.evaluate(value, root, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);
+               for (var i = 0; i < result.snapshotLength; i++) found.push(result.snapshotItem(i));
+               return found;
+            }
+            if (kind === 'LINK_TEXT' || kind === 'PARTIAL_LINK_TEXT') {
+               return Array.from(root.querySelectorAll('a')).filter(function (a) {
+                  var text = (a.innerText || '').trim();
+                  return kind === 'LINK_TEXT' ? text === value : text.indexOf(value) >= 0;
+               });
+            }
+            var css = kind === 'ID' ? '#' + CSS.escape(value)
+                  : kind === 'CLASS_NAME' ? '.' + CSS.escape(value)
+                  : kind === 'NAME' ? '[name="' + value.replace(/["\\\\]/g, '\\\\$&') + '"]' : value;
+            return Array.from(root.querySelectorAll(css));
+         }
+         """;
+
+   /**
+    * Arguments: locator kind, locator value, condition type, attribute, expected
+    * value, timeout in ms, callback
+    */
+   private static final String CONDITION_SCRIPT = FIND_ELEMENTS_FUNCTION + """
+         var kind = arguments[0], value = arguments[1], type = arguments[2], attribute = arguments[3];
+         var expected = arguments[4], timeout = arguments[5], callback = arguments[arguments.length - 1];
+         function text(el) { return (el.innerText || el.textContent || '').trim(); }
+         function holds() {
+            var found = findElements(document, kind, value);
+            switch (type) {
+               case 'PRESENT': return found.length > 0;
+               case 'ABSENT': return found.length === 0;
+               case 'TEXT_CONTAINS': return found.some(function (el) { return text(el).indexOf(expected) >= 0; });
+               case 'TEXT_CONTAINS_IGNORE_CASE': return found.some(function (el) {
+                  return text(el).toLowerCase().indexOf(expected.toLowerCase()) >= 0; });
+               case 'TEXT_POPULATED': return found.some(function (el) { return text(el) !== ''; });
+               case 'ATTRIBUTE_EQUALS': return found.some(function (el) {
+                  return el.getAttribute(attribute) === expected; });
+               default: throw new Error('Unknown condition ' + type);
+            }
+         }
+         if (holds()) { callback(true); return; }
+         var done = false, timer;
+         var observer = new MutationObserver(function () { if (!done && holds()) finish(true); });
+         function finish(result) { done = true; observer.disconnect(); clearTimeout(timer); callback(result); }
+         observer.observe(document, { childList: true, subtree: true, attributes: true, characterData: true });
+         timer = setTimeout(function () { finish(holds()); }, timeout);
+         """;
+
+   /**
+    * Arguments: quiet period in ms, timeout in ms, callback
+    */
+   private static final String SETTLE_SCRIPT = """
+         var quiet = arguments[0], timeout = arguments[1], callback = arguments[arguments.length - 1];
+         var quietTimer, timeoutTimer, observer = new MutationObserver(restart);
+         function finish(result) {
+            observer.disconnect(); clearTimeout(quietTimer); clearTimeout(timeoutTimer); callback(result);
+         }
+         function restart() { clearTimeout(quietTimer); quietTimer = setTimeout(function () { finish(true); }, quiet); }
+         observer.observe(document, { childList: true, subtree: true, attributes: true, characterData: true });
+         timeoutTimer = setTimeout(function () { finish(false); }, timeout);
+         restart();
+         """;
+
+   private static final long CHUNK_MILLIS = 10_000;
+
+   /**
+    * Waits until a condition holds for the elements matching a locator
+    *
+    * @param driver     the browser
+    * @param strElement the string locator
+    * @param condition  the condition
+    * @param timeout    the longest time to wait
+    * @return true if the condition holds, false if the wait timed out
+    */
+   public static boolean until(RemoteWebDriver driver, String strElement, DomCondition condition,
+         Duration timeout) {
+      LocatorRegistry.Locator locator = LocatorRegistry.get(strElement);
+      long deadline = System.currentTimeMillis() + timeout.toMillis();
+      do {
+         long chunk = Math.max(0, Math.min(CHUNK_MILLIS, deadline - System.currentTimeMillis()));
+         try {
+            Object result = driver.executeAsyncScript(CONDITION_SCRIPT, locator.kind().name(), locator.value(),
+                  condition.type(), condition.attribute(), condition.expected(), chunk);
+            if (Boolean.TRUE.equals(result)) {
+               return true;
+            }
+         } catch (JavascriptException | ScriptTimeoutException e) {
+            // The page navigated away (or is loading) - check again on the new page
+            TestLoggerHolder.getLogger().debug("DOM wait interrupted: {}", e.getMessage());
+            pause();
+         }
+      } while (System.currentTimeMillis() < deadline && !Thread.currentThread().isInterrupted());
+      return false;
+   }
+
+   /**
+    * Waits until the page stops changing, i.e. no DOM mutation has happened for
+    * the quiet period, e.g. while an overlay animates away
+    *
+    * @param driver  the browser
+    * @param quiet   how long the DOM has to stay unchanged
+    * @param timeout the longest time to wait
+    * @return true if the page settled, false if it was still changing
+    */
+   public static boolean untilSettled(RemoteWebDriver driver, Duration quiet, Duration timeout) {
+      try {
+         return Boolean.TRUE.equals(driver.executeAsyncScript(SETTLE_SCRIPT, quiet.toMillis(),
+               Math.min(CHUNK_MILLIS, timeout.toMillis())));
+      } catch (JavascriptException | ScriptTimeoutException e) {
+         TestLoggerHolder.getLogger().debug("DOM settle wait interrupted: {}", e.getMessage());
+         return false;
+      }
+   }
+
+   /**
+    * Pauses briefly before retrying a wait on a page that is loading
+    */
+   private static void pause() {
+      try {
+         Thread.sleep(100);
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+      }
+   }
+}
@@ -0,0 +1,266 @@
+package utils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openqa.selenium.chromium.ChromiumDriver;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.devtools.v130.network.Network;
+import org.openqa.selenium.devtools.v130.network.model.LoadingFailed;
+import org.openqa.selenium.devtools.v130.network.model.ResourceType;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+/**
+ * Blocks requests a scenario does not need (images, fonts, media, analytics and
+ * other third party hosts) through the DevTools Network domain, so pages load
+ * faster in scenarios that only check business logic.
+ * <p>
+ * The profile comes from a {@code @Network:<profile>} tag on the scenario, or
+ * the {@code networkProfile} setting. The blocking is done by the browser
+ * ({@code Network.setBlockedURLs}), so no request makes a round trip to the
+ * test. Blocked requests are counted per scenario together with an estimate of
+ * the bytes they would have downloaded. Only Chromium browsers (Chrome, Edge)
+ * support this; other browsers run unshaped.
+ */
+public class NetworkShaper {
+
+   /**
+    * Constructor required for Sonar
+    */
+   private NetworkShaper() {
+      throw new IllegalStateException("Utility class");
+   }
+
+   /**
+    * The request blocking profiles
+    */
+   public enum NetworkProfile {
+      /** Nothing blocked */
+      NONE(false, false),
+      /** Images, fonts and media blocked */
+      LEAN(true, false),
+      /** Analytics, tracking and the networkBlockedHosts blocked */
+      NO_THIRD_PARTY(false, true),
+      /** Everything in LEAN and NO_THIRD_PARTY blocked */
+      MINIMAL(true, true);
+
+      private final boolean blockAssets;
+      private final boolean blockThirdParty;
+
+      NetworkProfile(boolean blockAssets, boolean blockThirdParty) {
+         this.blockAssets = blockAssets;
+         this.blockThirdParty = blockThirdParty;
+      }
+   }
+
+   /**
+    * The shaping state of one browser session
+    */
+   private static final class Shaping {
+      private final DevTools devTools;
+      private NetworkProfile profile = NetworkProfile.NONE;
+      private final AtomicLong blocked = new AtomicLong();
+      private final AtomicLong bytesSaved = new AtomicLong();
+
+      Shaping(DevTools devTools) {
+         this.devTools = devTools;
+      }
+   }
+
+   private static final String TAG_PREFIX = "@Network:";
+   private static final List<String> IMAGE_EXTENSIONS = List.of("png", "jpg", "jpeg", "gif", "webp", "avif", "svg",
+         "ico", "bmp");
+   private static final List<String> FONT_EXTENSIONS = List.of("woff", "woff2", "ttf", "otf", "eot");
+   private static final List<String> MEDIA_EXTENSIONS = List.of("mp4", "webm", "ogg", "mp3", "wav", "m4a", "mov");
+   private static final List<String> THIRD_PARTY_HOSTS = List.of("google-analytics.com", "googletagmanager.com",
+         "doubleclick.net", "googlesyndication.com", "hotjar.com", "clarity.ms", "segment.io", "connect.facebook.net",
+         "bat.bing.com", "nr-data.net", "optimizely.com", "newrelic.com");
+
+   /** Sessions are forgotten once the browser is gone */
+   private static final Map<RemoteWebDriver, Shaping> sessions = Collections.synchronizedMap(new WeakHashMap<>());
+   private static final AtomicLong runBlocked = new AtomicLong();
+   private static final AtomicLong runBytesSaved = new AtomicLong();
+
+   /**
+    * Applies the scenario's network profile to its browser and resets the
+    * scenario counters. The DevTools listener is only added the first time a
+    * browser is shaped, so pooled browsers are not given another one per
+    * scenario.
+    *
+    * @param driver the scenario's browser
+    * @param tags   the scenario tags
+    */
+   public static void startScenario(RemoteWebDriver driver, Collection<String> tags) {
+      NetworkProfile profile = resolveProfile(tags);
+      Shaping shaping = sessions.get(driver);
+      if (shaping == null && profile == NetworkProfile.NONE) {
+         return;
+      }
+      boolean chromium = driver instanceof ChromiumDriver || driver instanceof HasDevTools && isChromium(driver);
+      if (!chromium) {
+         TestLoggerHolder.getLogger().warn("Network profile " + profile + " needs a Chromium browser - not applied");
+         return;
+      }
+
+      try {
+         if (shaping == null) {
+            shaping = connect(driver);
+         }
+         shaping.blocked.set(0);
+         shaping.bytesSaved.set(0);
+         if (shaping.profile != profile) {
+            shaping.devTools.send(Network.setBlockedURLs(getBlockedPatterns(profile)));
+            shaping.profile = profile;
+         }
+         TestLoggerHolder.getLogger().info("{} {}", "🌐 Network profile applied:", profile);
+      } catch (Exception e) {
+         TestLoggerHolder.getLogger().warn("Network profile " + profile + " could not be applied: " + e.getMessage());
+      }
+   }
+
+   /**
+    * Gets and logs the requests blocked in the browser's current scenario
+    *
+    * @param driver the scenario's browser
+    * @return a one line summary, or null if the browser was not shaped
+    */
+   public static String finishScenario(RemoteWebDriver driver) {
+      Shaping shaping = driver == null ? null : sessions.get(driver);
+      if (shaping == null || shaping.profile == NetworkProfile.NONE) {
+         return null;
+      }
+      String summary = String.format("🌐 Network profile %s blocked %d requests (about %d KB saved)",
+            shaping.profile, shaping.blocked.get(), shaping.bytesSaved.get() / 1024);
+      TestLoggerHolder.getLogger().info(summary);
+      return summary;
+   }
+
+   /**
+    * Gets a one line summary of the requests blocked over the run
+    *
+    * @return the summary
+    */
+   public static String getSummary() {
+      return String.format("Network shaping: %d requests blocked, about %d KB saved", runBlocked.get(),
+            runBytesSaved.get() / 1024);
+   }
+
+   /**
+    * Opens a DevTools session on the browser and listens for blocked requests
+    *
+    * @param driver the browser
+    * @return the shaping state
+    */
+   private static Shaping connect(RemoteWebDriver driver) {
+      DevTools devTools = ((HasDevTools) driver).getDevTools();
+      devTools.createSessionIfThereIsNotOne(driver.getWindowHandle());
+      devTools.send(Network.enable(Optional.empty(), Optional.empty(), Optional.empty()));
+      Shaping shaping = new Shaping(devTools);
+      devTools.addListener(Network.loadingFailed(), failed -> onLoadingFailed(shaping, failed));
+      sessions.put(driver, shaping);
+      return shaping;
+   }
+
+   /**
+    * Counts a request the browser blocked
+    *
+    * @param shaping the shaping state of the browser
+    * @param failed  the failed request
+    */
+   private static void onLoadingFailed(Shaping shaping, LoadingFailed failed) {
+      if (failed.getBlockedReason().isEmpty()) {
+         return;
+      }
+      long bytes = estimateBytes(failed.getType());
+      shaping.blocked.incrementAndGet();
+      shaping.bytesSaved.addAndGet(bytes);
+      runBlocked.incrementAndGet();
+      runBytesSaved.addAndGet(bytes);
+   }
+
+   /**
+    * Estimates the size of a blocked request from typical page weights, as a
+    * blocked request never reports its size
+    *
+    * @param type the resource type
+    * @return the estimated size in bytes
+    */
+   private static long estimateBytes(ResourceType type) {
+      if (type == ResourceType.IMAGE) {
+         return 50 * 1024L;
+      } else if (type == ResourceType.FONT) {
+         return 40 * 1024L;
+      } else if (type == ResourceType.MEDIA) {
+         return 500 * 1024L;
+      } else if (type == ResourceType.SCRIPT) {
+         return 60 * 1024L;
+      }
+      return 5 * 1024L;
+   }
+
+   /**
+    * Gets the URL patterns blocked by a profile
+    *
+    * @param profile the profile
+    * @return the URL patterns ({@code *} matches any characters)
+    */
+   private static List<String> getBlockedPatterns(NetworkProfile profile) {
+      List<String> patterns = new ArrayList<>();
+      if (profile.blockAssets) {
+         List<String> extensions = new ArrayList<>(IMAGE_EXTENSIONS);
+         extensions.addAll(FONT_EXTENSIONS);
+         extensions.addAll(MEDIA_EXTENSIONS);
+         for (String extension : extensions) {
+            patterns.add("*." + extension);
+            patterns.add("*." + extension + "?*");
+         }
+      }
+      if (profile.blockThirdParty) {
+         List<String> hosts = new ArrayList<>(THIRD_PARTY_HOSTS);
+         hosts.addAll(BaseTestConfiguration.getNetworkBlockedHosts());
+         for (String host : hosts) {
+            patterns.add("*://" + host + "/*");
+            patterns.add("*." + host + "/*");
+         }
+      }
+      return patterns;
+   }
+
+   /**
+    * Gets the profile from the scenario's {@code @Network:<profile>} tag, or the
+    * networkProfile setting
+    *
+    * @param tags the scenario tags
+    * @return the profile
+    */
+   private static NetworkProfile resolveProfile(Collection<String> tags) {
+      String name = tags.stream().filter(tag -> tag.regionMatches(true, 0, TAG_PREFIX, 0, TAG_PREFIX.length()))
+            .map(tag -> tag.substring(TAG_PREFIX.length())).findFirst()
+            .orElse(BaseTestConfiguration.getNetworkProfile());
+      try {
+         return NetworkProfile.valueOf(name.toUpperCase());
+      } catch (IllegalArgumentException e) {
+         TestLoggerHolder.getLogger().warn("Unknown network profile " + name + " - no requests blocked");
+         return NetworkProfile.NONE;
+      }
+   }
+
+   /**
+    * Checks whether a (remote) session is a Chromium browser
+    *
+    * @param driver the session
+    * @return true for Chrome and Edge
+    */
+   static boolean isChromium(RemoteWebDriver driver) {
+      String browserName = driver.getCapabilities().getBrowserName();
+      return "chrome".equalsIgnoreCase(browserName) || "MicrosoftEdge".equalsIgnoreCase(browserName)
+            || "msedge".equalsIgnoreCase(browserName);
+   }
+}
@@ -0,0 +1,201 @@
+package utils;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chromium.ChromiumDriver;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.devtools.v130.network.Network;
+import org.openqa.selenium.devtools.v130.network.model.RequestWillBeSent;
+import org.openqa.selenium.devtools.v130.network.model.ResourceType;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import utils.WaitEngine.Timeout;
+
+/**
+ * Waits until a page is ready to use, not just loaded: {@code document.readyState}
+ * only says the document has loaded, while an AngularJS/Material page is still
+ * making XHRs and animating long after that.
+ * <p>
+ * A page counts as ready when the document is complete, AngularJS has no
+ * pending {@code $http} requests, nothing matches the {@code appBusySelector}
+ * setting and, on Chromium browsers, the browser has had no network request in
+ * flight for {@code networkIdleMillis}. Requests are tracked through the
+ * DevTools Network domain from the first wait on a browser (on the window that
+ * was current then). Web sockets, event streams and requests in flight for more
+ * than {@value #LONG_POLL_MILLIS} ms (long polls) do not keep a page busy.
+ */
+public class PageQuiescence {
+
+   /**
+    * Constructor required for Sonar
+    */
+   private PageQuiescence() {
+      throw new IllegalStateException("Utility class");
+   }
+
+   /**
+    * The network requests of one browser session
+    */
+   private static final class NetworkTracker {
+      /** Request id to the {@link System#nanoTime()} it was sent */
+      private final Map<String, Long> inFlight = new ConcurrentHashMap<>();
+      private volatile long lastActivityNanos = System.nanoTime();
+
+      void sent(RequestWillBeSent request) {
+         Optional<ResourceType> type = request.getType();
+         if (type.isPresent() && (type.get() == ResourceType.WEBSOCKET || type.get() == ResourceType.EVENTSOURCE)
+               || request.getRequest().getUrl().startsWith("data:")) {
+            return;
+         }
+         inFlight.put(request.getRequestId().toString(), System.nanoTime());
+         lastActivityNanos = System.nanoTime();
+      }
+
+      void done(String requestId) {
+         if (inFlight.remove(requestId) != null) {
+            lastActivityNanos = System.nanoTime();
+         }
+      }
+
+      /**
+       * Gets why the network is still busy
+       *
+       * @param idleNanos how long the network has to have been quiet
+       * @return the reason, or null if the network is idle
+       */
+      String getBusyReason(long idleNanos) {
+         long now = System.nanoTime();
+         long pending = inFlight.values().stream().filter(sent -> now - sent < LONG_POLL_MILLIS * 1_000_000).count();
+         if (pending > 0) {
+            return pending + " network requests in flight";
+         }
+         return now - lastActivityNanos < idleNanos ? "network active in the last "
+               + BaseTestConfiguration.getNetworkIdleMillis() + " ms" : null;
+      }
+   }
+
+   /**
+    * Returns null when the page is ready, otherwise why it is not. Arguments:
+    * the busy selector (may be empty)
+    */
+   private static final String APP_BUSY_SCRIPT = """
+         if (document.readyState !== 'complete') return 'document ' + document.readyState;
+         if (window.angular) {
+            var root = document.querySelector('[ng-app], [data-ng-app], .ng-scope');
+            var injector = root && window.angular.element(root).injector();
+            if (injector && injector.has('$http') && injector.get('$http').pendingRequests.length) {
+               return injector.get('$http').pendingRequests.length + ' $http requests pending';
+            }
+         }
+         if (arguments[0] && document.querySelector(arguments[0])) return 'element busy: ' + arguments[0];
+         return null;
+         """;
+
+   private static final long LONG_POLL_MILLIS = 10_000;
+
+   /** Empty for a browser that cannot be tracked, so it is only tried once */
+   private static final Map<RemoteWebDriver, Optional<NetworkTracker>> trackers = Collections
+         .synchronizedMap(new WeakHashMap<>());
+   private static final AtomicLong waits = new AtomicLong();
+   private static final AtomicLong timedOut = new AtomicLong();
+   private static final AtomicLong totalMillis = new AtomicLong();
+
+   /**
+    * Waits until the page in the browser is ready to use
+    *
+    * @param driver  the browser
+    * @param timeout how long to wait before carrying on with a warning
+    * @return true if the page is ready, false if it was still busy
+    */
+   public static boolean waitForPage(RemoteWebDriver driver, Timeout timeout) {
+      Optional<NetworkTracker> tracker = getTracker(driver);
+      long idleNanos = BaseTestConfiguration.getNetworkIdleMillis() * 1_000_000L;
+      String busySelector = BaseTestConfiguration.getAppBusySelector();
+      String[] reason = new String[1];
+      long start = System.nanoTime();
+      waits.incrementAndGet();
+      try {
+         WaitEngine.getWait(timeout).until(ignored -> {
+            try {
+               reason[0] = (String) driver.executeScript(APP_BUSY_SCRIPT, busySelector);
+            } catch (JavascriptException e) {
+               // The page navigated away while the script ran
+               reason[0] = "page changing";
+               return false;
+            }
+            if (reason[0] == null && tracker.isPresent()) {
+               reason[0] = tracker.get().getBusyReason(idleNanos);
+            }
+            return reason[0] == null;
+         });
+         return true;
+      } catch (TimeoutException e) {
+         timedOut.incrementAndGet();
+         TestLoggerHolder.getLogger().warn("Page still busy after {}s ({}) - carrying on",
+               timeout.getDuration().toSeconds(), reason[0]);
+         return false;
+      } finally {
+         totalMillis.addAndGet((System.nanoTime() - start) / 1_000_000);
+      }
+   }
+
+   /**
+    * Gets a one line summary of the page ready waits over the run
+    *
+    * @return the summary
+    */
+   public static String getSummary() {
+      long count = waits.get();
+      return String.format("Page ready waits: %d (average %d ms), %d timed out while the page was busy", count,
+            count == 0 ? 0 : totalMillis.get() / count, timedOut.get());
+   }
+
+   /**
+    * Gets the network tracker of a browser, starting to track it on first use
+    *
+    * @param driver the browser
+    * @return the tracker, or empty if the browser has no DevTools Network domain
+    */
+   private static Optional<NetworkTracker> getTracker(RemoteWebDriver driver) {
+      synchronized (trackers) {
+         return trackers.computeIfAbsent(driver, PageQuiescence::connect);
+      }
+   }
+
+   /**
+    * Opens a DevTools session on the browser and tracks its network requests
+    *
+    * @param driver the browser
+    * @return the tracker, or empty if the browser cannot be tracked
+    */
+   private static Optional<NetworkTracker> connect(RemoteWebDriver driver) {
+      boolean chromium = driver instanceof ChromiumDriver
+            || driver instanceof HasDevTools && NetworkShaper.isChromium(driver);
+      if (!chromium) {
+         return Optional.empty();
+      }
+      try {
+         DevTools devTools = ((HasDevTools) driver).getDevTools();
+         devTools.createSessionIfThereIsNotOne(driver.getWindowHandle());
+         devTools.send(Network.enable(Optional.empty(), Optional.empty(), Optional.empty()));
+         NetworkTracker tracker = new NetworkTracker();
+         devTools.addListener(Network.requestWillBeSent(), tracker::sent);
+         devTools.addListener(Network.loadingFinished(), finished -> tracker.done(finished.getRequestId().toString()));
+         devTools.addListener(Network.loadingFailed(), failed -> tracker.done(failed.getRequestId().toString()));
+         return Optional.of(tracker);
+      } catch (WebDriverException e) {
+         TestLoggerHolder.getLogger().warn("Network requests not tracked, page ready waits use the page only: "
+               + e.getMessage());
+         return Optional.empty();
+      }
+   }
+}
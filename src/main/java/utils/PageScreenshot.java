@@ -0,0 +1,248 @@
+package utils;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.firefox.HasFullPageScreenshot;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+/**
+ * Takes a screenshot of the whole page, not just the viewport, as one image in
+ * one call to the browser.
+ * <p>
+ * Chrome and Edge capture the page through the DevTools
+ * {@code Page.captureScreenshot} command with {@code captureBeyondViewport},
+ * encoded by the browser in the {@code screenshotFormat} (PNG, JPEG or WEBP) at
+ * {@code screenshotQuality}. Firefox uses its own full page screenshot, which
+ * is always a PNG, so {@link #encode(byte[])} re-encodes it as a JPEG when a
+ * lossy format is set (Java cannot write WEBP). Pages taller than
+ * {@code screenshotMaxHeight} are cut off at that height. Other browsers have
+ * no full page screenshot.
+ */
+public class PageScreenshot {
+
+   /**
+    * Constructor required for Sonar
+    */
+   private PageScreenshot() {
+      throw new IllegalStateException("Utility class");
+   }
+
+   /**
+    * The image formats a screenshot can be taken in
+    */
+   public enum ImageFormat {
+      /** Lossless, the largest */
+      PNG,
+      /** Lossy, at screenshotQuality */
+      JPEG,
+      /** Lossy, at screenshotQuality, Chrome and Edge only (JPEG on Firefox) */
+      WEBP
+   }
+
+   private static final AtomicLong captures = new AtomicLong();
+   private static final AtomicLong encoded = new AtomicLong();
+   private static final AtomicLong encodedBytes = new AtomicLong();
+
+   private static final byte[] PNG_SIGNATURE = { (byte) 0x89, 'P', 'N', 'G' };
+   private static final byte[] WEBP_SIGNATURE = { 'R', 'I', 'F', 'F' };
+   /** The offset of the image height in a PNG (in the IHDR chunk) */
+   private static final int PNG_HEIGHT_OFFSET = 20;
+
+   /**
+    * Takes a full page screenshot. Only the browser's work is done here, see
+    * {@link #encode(byte[])} for the rest.
+    *
+    * @param driver the browser
+    * @return the image as taken, or null if the browser cannot take a full page
+    *         screenshot
+    */
+   public static byte[] capture(RemoteWebDriver driver) {
+      byte[] image = null;
+      if (driver instanceof HasCdp chromium) {
+         image = Base64.getDecoder().decode(captureChromium(chromium));
+      } else if (driver instanceof HasFullPageScreenshot firefox) {
+         image = firefox.getFullPageScreenshotAs(OutputType.BYTES);
+      }
+      if (image != null) {
+         captures.incrementAndGet();
+      }
+      return image;
+   }
+
+   /**
+    * Makes a screenshot ready for the report: a PNG is cut to the height cap and
+    * re-encoded as a JPEG if a lossy format is set. Images the browser already
+    * encoded are returned as they are.
+    *
+    * @param image the image as taken
+    * @return the image for the report
+    */
+   public static byte[] encode(byte[] image) {
+      byte[] result = isPng(image) ? reencode(image) : image;
+      encoded.incrementAndGet();
+      encodedBytes.addAndGet(result.length);
+      return result;
+   }
+
+   /**
+    * Gets the file extension of an image
+    *
+    * @param image the image
+    * @return png, webp or jpg
+    */
+   public static String getExtension(byte[] image) {
+      if (isPng(image)) {
+         return "png";
+      }
+      return Arrays.equals(image, 0, WEBP_SIGNATURE.length, WEBP_SIGNATURE, 0, WEBP_SIGNATURE.length) ? "webp"
+            : "jpg";
+   }
+
+   /**
+    * Gets the screenshot format setting
+    *
+    * @return the format, PNG if the setting is not a known format
+    */
+   public static ImageFormat getFormat() {
+      try {
+         return ImageFormat.valueOf(BaseTestConfiguration.getScreenshotFormat());
+      } catch (IllegalArgumentException e) {
+         return ImageFormat.PNG;
+      }
+   }
+
+   /**
+    * Gets a one line summary of the screenshots taken over the run
+    *
+    * @return the summary
+    */
+   public static String getSummary() {
+      long count = encoded.get();
+      return String.format("Screenshots: %d full page, %d images as %s, %d KB in total (average %d KB)",
+            captures.get(), count, getFormat(), encodedBytes.get() / 1024,
+            count == 0 ? 0 : encodedBytes.get() / 1024 / count);
+   }
+
+   /**
+    * Gets the average size of the report screenshots so far
+    *
+    * @return the size in bytes, 0 before the first screenshot
+    */
+   static long getAverageBytes() {
+      long count = encoded.get();
+      return count == 0 ? 0 : encodedBytes.get() / count;
+   }
+
+   /**
+    * Captures the page in a Chromium browser, clipped to the page's content size
+    * (up to the height cap)
+    *
+    * @param chromium the browser
+    * @return the base64 encoded image
+    */
+   @SuppressWarnings("unchecked")
+   private static String captureChromium(HasCdp chromium) {
+      Map<String, Object> metrics = chromium.executeCdpCommand("Page.getLayoutMetrics", Map.of());
+      Map<String, Object> content = (Map<String, Object>) metrics.getOrDefault("cssContentSize",
+            metrics.get("contentSize"));
+      double width = ((Number) content.get("width")).doubleValue();
+      double height = Math.min(((Number) content.get("height")).doubleValue(),
+            BaseTestConfiguration.getScreenshotMaxHeight());
+
+      ImageFormat format = getFormat();
+      Map<String, Object> params = new HashMap<>();
+      params.put("format", format.name().toLowerCase());
+      if (format != ImageFormat.PNG) {
+         params.put("quality", BaseTestConfiguration.getScreenshotQuality());
+      }
+      params.put("captureBeyondViewport", true);
+      params.put("clip", Map.of("x", 0, "y", 0, "width", width, "height", height, "scale", 1));
+      return (String) chromium.executeCdpCommand("Page.captureScreenshot", params).get("data");
+   }
+
+   /**
+    * Cuts a PNG screenshot to the height cap and re-encodes it as a JPEG if a
+    * lossy format is set
+    *
+    * @param png the screenshot
+    * @return the image
+    */
+   private static byte[] reencode(byte[] png) {
+      ImageFormat format = getFormat();
+      int maxHeight = BaseTestConfiguration.getScreenshotMaxHeight();
+      // The height is in the header, so a PNG that needs no change is not decoded
+      if (format == ImageFormat.PNG && png.length > PNG_HEIGHT_OFFSET + 4
+            && ByteBuffer.wrap(png, PNG_HEIGHT_OFFSET, 4).getInt() <= maxHeight) {
+         return png;
+      }
+      try {
+         BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+         int height = Math.min(image.getHeight(), maxHeight);
+         if (format == ImageFormat.PNG) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(image.getSubimage(0, 0, image.getWidth(), height), "png", out);
+            return out.toByteArray();
+         }
+         // JPEG has no alpha channel
+         BufferedImage rgb = new BufferedImage(image.getWidth(), height, BufferedImage.TYPE_INT_RGB);
+         Graphics2D g2d = rgb.createGraphics();
+         g2d.drawImage(image, 0, 0, null);
+         g2d.dispose();
+         return writeJpeg(rgb);
+      } catch (IOException e) {
+         TestLoggerHolder.getLogger().warn("Screenshot not re-encoded, attached as taken: " + e.getMessage());
+         return png;
+      }
+   }
+
+   /**
+    * Checks whether an image is a PNG
+    *
+    * @param image the image
+    * @return true for a PNG
+    */
+   private static boolean isPng(byte[] image) {
+      return image.length >= PNG_SIGNATURE.length
+            && Arrays.equals(image, 0, PNG_SIGNATURE.length, PNG_SIGNATURE, 0, PNG_SIGNATURE.length);
+   }
+
+   /**
+    * Encodes an image as a JPEG at the screenshot quality
+    *
+    * @param image the image
+    * @return the JPEG
+    * @throws IOException if the image cannot be encoded
+    */
+   private static byte[] writeJpeg(BufferedImage image) throws IOException {
+      ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+      ImageWriteParam param = writer.getDefaultWriteParam();
+      param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+      param.setCompressionQuality(Math.clamp(BaseTestConfiguration.getScreenshotQuality(), 0, 100) / 100f);
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      try (ImageOutputStream stream = ImageIO.createImageOutputStream(out)) {
+         writer.setOutput(stream);
+         writer.write(null, new IIOImage(image, null, null), param);
+      } finally {
+         writer.dispose();
+      }
+      return out.toByteArray();
+   }
+}
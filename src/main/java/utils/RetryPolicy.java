@@ -0,0 +1,204 @@
+package utils;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.openqa.selenium.ElementClickInterceptedException;
+import org.openqa.selenium.InvalidElementStateException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+
+/**
+ * Retries page object actions that fail for a reason that can pass, e.g. an
+ * element replaced while it was being used or a click landing on an overlay.
+ * <p>
+ * Failures are classified by exception. Retryable ones are retried up to
+ * {@code retryMaxAttempts} times with an exponential backoff from
+ * {@code retryBackoffMillis} (with jitter, so parallel threads do not retry in
+ * step), after the caller's recovery for the kind of failure. A timed out wait
+ * is never retried, as it has already waited its full length. Each scenario may
+ * retry {@code retryBudgetPerScenario} times, after that failures are reported
+ * straight away so that a flaky page fails fast rather than slowly. Retries are
+ * counted per exception and reported per scenario and for the run.
+ */
+public class RetryPolicy {
+
+   /**
+    * Constructor required for Sonar
+    */
+   private RetryPolicy() {
+      throw new IllegalStateException("Utility class");
+   }
+
+   /**
+    * The kinds of failure, and whether they are retried
+    */
+   public enum FailureKind {
+      /** The element was replaced in the page - find it again */
+      STALE(true),
+      /** Something covered the element, e.g. an overlay or animation */
+      INTERCEPTED(true),
+      /** The element is there but cannot be used yet, e.g. still disabled */
+      NOT_INTERACTABLE(true),
+      /** A wait timed out, it has already waited its full length */
+      TIMEOUT(false),
+      /** Anything else */
+      OTHER(false);
+
+      private final boolean retryable;
+
+      FailureKind(boolean retryable) {
+         this.retryable = retryable;
+      }
+
+      /**
+       * Classifies a failure
+       *
+       * @param e the failure
+       * @return the kind of failure
+       */
+      public static FailureKind of(RuntimeException e) {
+         if (e instanceof StaleElementReferenceException) {
+            return STALE;
+         } else if (e instanceof ElementClickInterceptedException) {
+            return INTERCEPTED;
+         } else if (e instanceof InvalidElementStateException) {
+            return NOT_INTERACTABLE;
+         } else if (e instanceof TimeoutException) {
+            return TIMEOUT;
+         }
+         return OTHER;
+      }
+   }
+
+   private static final long MAX_BACKOFF_MILLIS = 2_000;
+
+   /** Retries and milliseconds spent retrying in the current thread's scenario */
+   private static final ThreadLocal<long[]> scenarioRetries = ThreadLocal.withInitial(() -> new long[2]);
+   private static final Map<String, LongAdder> runRetries = new ConcurrentHashMap<>();
+   private static final Map<String, LongAdder> runGiveUps = new ConcurrentHashMap<>();
+   private static final AtomicLong runRetryMillis = new AtomicLong();
+   private static final AtomicLong budgetsSpent = new AtomicLong();
+
+   /**
+    * Runs an action, retrying it on failures that can pass
+    *
+    * @param <T>      the type the action returns
+    * @param what     what the action is on, for the log (e.g. the locator)
+    * @param action   the action
+    * @param recovery what to do before retrying a kind of failure, e.g. drop a
+    *                 cached element that went stale
+    * @return what the action returns
+    */
+   public static <T> T run(String what, Supplier<T> action, Consumer<FailureKind> recovery) {
+      for (int attempt = 1;; attempt++) {
+         try {
+            return action.get();
+         } catch (RuntimeException e) {
+            FailureKind kind = FailureKind.of(e);
+            String exception = e.getClass().getSimpleName();
+            if (!kind.retryable) {
+               if (SessionHealthTracker.isSessionFailure(e)) {
+                  DriverManager.markSessionSuspect();
+               }
+               throw e;
+            }
+            if (attempt >= BaseTestConfiguration.getRetryMaxAttempts() || !takeFromBudget()) {
+               runGiveUps.computeIfAbsent(exception, key -> new LongAdder()).increment();
+               throw e;
+            }
+            TestLoggerHolder.getLogger().info("{} on {}, retry {} of {}", exception, what, attempt,
+                  BaseTestConfiguration.getRetryMaxAttempts() - 1);
+            long start = System.nanoTime();
+            recovery.accept(kind);
+            backOff(attempt);
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            scenarioRetries.get()[1] += millis;
+            runRetryMillis.addAndGet(millis);
+            runRetries.computeIfAbsent(exception, key -> new LongAdder()).increment();
+         }
+      }
+   }
+
+   /**
+    * Gets and resets the retries made in the current thread's scenario
+    *
+    * @return a one line summary, or null if there were no retries
+    */
+   public static String finishScenario() {
+      long[] retries = scenarioRetries.get();
+      String summary = retries[0] == 0 ? null
+            : String.format("🔁 %d page action retries (%d ms spent retrying)", retries[0], retries[1]);
+      retries[0] = 0;
+      retries[1] = 0;
+      if (summary != null) {
+         TestLoggerHolder.getLogger().info(summary);
+      }
+      return summary;
+   }
+
+   /**
+    * Gets a one line summary of the retries over the run, by exception
+    *
+    * @return the summary
+    */
+   public static String getSummary() {
+      return String.format("Retries: %s, %d ms spent retrying, gave up on %s, %d scenarios spent their budget",
+            format(runRetries), runRetryMillis.get(), format(runGiveUps), budgetsSpent.get());
+   }
+
+   /**
+    * Takes a retry from the current thread's scenario budget
+    *
+    * @return true if the budget allowed it
+    */
+   private static boolean takeFromBudget() {
+      long[] retries = scenarioRetries.get();
+      if (retries[0] >= BaseTestConfiguration.getRetryBudgetPerScenario()) {
+         return false;
+      }
+      if (++retries[0] == BaseTestConfiguration.getRetryBudgetPerScenario()) {
+         budgetsSpent.incrementAndGet();
+         TestLoggerHolder.getLogger().warn("Retry budget of {} spent, failures in this scenario are not retried",
+               BaseTestConfiguration.getRetryBudgetPerScenario());
+      }
+      return true;
+   }
+
+   /**
+    * Pauses before a retry: the backoff doubles with each attempt, and a random
+    * part of it is skipped
+    *
+    * @param attempt the attempt that failed, from 1
+    */
+   private static void backOff(int attempt) {
+      long backoff = Math.min(MAX_BACKOFF_MILLIS,
+            (long) BaseTestConfiguration.getRetryBackoffMillis() << Math.min(attempt - 1, 20));
+      try {
+         Thread.sleep(backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1));
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+      }
+   }
+
+   /**
+    * Formats counts by exception
+    *
+    * @param counts the counts
+    * @return e.g. {@code 3 StaleElementReferenceException}, or none
+    */
+   private static String format(Map<String, LongAdder> counts) {
+      if (counts.isEmpty()) {
+         return "none";
+      }
+      return new TreeMap<>(counts).entrySet().stream().map(entry -> entry.getValue().sum() + " " + entry.getKey())
+            .collect(Collectors.joining(", "));
+   }
+}
@@ -0,0 +1,171 @@
+package utils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.MediaEntityBuilder;
+
+/**
+ * Writes the report screenshots off the test threads: a test thread only takes
+ * the screenshot and hands the image over, and a small pool of background
+ * workers encodes it (see {@link PageScreenshot#encode(byte[])}), writes it to
+ * the {@value #FOLDER} folder of the report folder and attaches it to the step
+ * by its path, rather than embedding it in the report as base64. A step
+ * screenshot the {@link ScreenshotPolicy} finds unchanged is noted on the step
+ * instead of being written.
+ * <p>
+ * At most {@code screenshotQueueSize} screenshots wait for a worker. When the
+ * queue is full the test thread writes its screenshot itself, so memory stays
+ * bounded when screenshots are taken faster than they can be written. The
+ * queue is drained when the test run finishes, before the report is flushed.
+ */
+public class ScreenshotPipeline {
+
+   /**
+    * Constructor required for Sonar
+    */
+   private ScreenshotPipeline() {
+      throw new IllegalStateException("Utility class");
+   }
+
+   /** The report sub folder the screenshots are written to */
+   private static final String FOLDER = "screenshots";
+
+   private static ThreadPoolExecutor executor;
+   private static Path screenshotFolder;
+   private static final AtomicInteger sequence = new AtomicInteger();
+   private static final AtomicLong written = new AtomicLong();
+   private static final AtomicLong writtenByTestThreads = new AtomicLong();
+   private static final AtomicLong failures = new AtomicLong();
+   private static final AtomicLong writeMillis = new AtomicLong();
+
+   /**
+    * Hands a screenshot over to be written and attached to a report step
+    *
+    * @param step  the report step to attach it to
+    * @param image the image as taken
+    */
+   public static void submit(ExtentTest step, byte[] image) {
+      submit(step, image, null);
+   }
+
+   /**
+    * Hands a step screenshot over to be checked against the screenshot policy,
+    * then written and attached to its report step
+    *
+    * @param step  the report step to attach it to
+    * @param image the image as taken
+    * @param check the screenshot policy check, or null to always attach it
+    */
+   public static void submit(ExtentTest step, byte[] image, ScreenshotPolicy.Check check) {
+      Runnable write = () -> write(step, image, check);
+      ThreadPoolExecutor pool = getExecutor();
+      if (pool == null) {
+         write.run();
+      } else {
+         pool.execute(write);
+      }
+   }
+
+   /**
+    * Writes the screenshots still queued, stops the workers and logs the
+    * pipeline statistics. Called when the test run finishes, before the report
+    * is flushed.
+    *
+    * @return a one line summary
+    */
+   public static String shutdown() {
+      ThreadPoolExecutor pool;
+      synchronized (ScreenshotPipeline.class) {
+         pool = executor;
+         executor = null;
+      }
+      if (pool != null) {
+         pool.shutdown();
+         try {
+            if (!pool.awaitTermination(2, TimeUnit.MINUTES)) {
+               TestLoggerHolder.getLogger().warn("Screenshots still being written after 2 minutes - not waiting");
+            }
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+         }
+      }
+      long count = written.get();
+      return String.format(
+            "Screenshot writers: %d written (%d by test threads as the queue was full), %d failed, average %d ms",
+            count, writtenByTestThreads.get(), failures.get(), count == 0 ? 0 : writeMillis.get() / count);
+   }
+
+   /**
+    * Gets the worker pool, starting it on first use
+    *
+    * @return the pool, or null if screenshots are written on the test threads
+    */
+   private static synchronized ThreadPoolExecutor getExecutor() {
+      if (executor == null && BaseTestConfiguration.getScreenshotWorkers() > 0) {
+         int workers = BaseTestConfiguration.getScreenshotWorkers();
+         executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+               new ArrayBlockingQueue<>(Math.max(1, BaseTestConfiguration.getScreenshotQueueSize())), runnable -> {
+                  Thread thread = new Thread(runnable, "screenshot-writer");
+                  thread.setDaemon(true);
+                  return thread;
+               }, (write, pool) -> {
+                  // Back pressure: the test thread writes its own screenshot
+                  writtenByTestThreads.incrementAndGet();
+                  write.run();
+               });
+      }
+      return executor;
+   }
+
+   /**
+    * Encodes and writes a screenshot and attaches it to its step, unless the
+    * screenshot policy skips it
+    *
+    * @param step  the report step
+    * @param image the image as taken
+    * @param check the screenshot policy check, or null
+    */
+   private static void write(ExtentTest step, byte[] image, ScreenshotPolicy.Check check) {
+      if (check != null && !check.isChanged(image)) {
+         step.info("📸 Same as the previous screenshot, not attached");
+         return;
+      }
+      long start = System.nanoTime();
+      try {
+         byte[] encoded = PageScreenshot.encode(image);
+         String name = String.format("step-%06d.%s", sequence.incrementAndGet(), PageScreenshot.getExtension(encoded));
+         Files.write(getFolder().resolve(name), encoded);
+         // Relative to the report, so the report folder can be moved or archived
+         step.info(MediaEntityBuilder.createScreenCaptureFromPath(FOLDER + "/" + name).build());
+         written.incrementAndGet();
+         writeMillis.addAndGet((System.nanoTime() - start) / 1_000_000);
+      } catch (IOException | RuntimeException e) {
+         failures.incrementAndGet();
+         TestLoggerHolder.getLogger().warn("Screenshot not written: " + e.getMessage());
+         step.info("Screenshot not written: " + e.getMessage());
+      }
+   }
+
+   /**
+    * Gets the screenshot folder of the run's report folder, creating it on first
+    * use
+    *
+    * @return the folder
+    * @throws IOException if the folder cannot be created
+    */
+   private static synchronized Path getFolder() throws IOException {
+      if (screenshotFolder == null) {
+         screenshotFolder = Files.createDirectories(Paths.get(TestReport.getLatestExtentReportFolder(), FOLDER));
+      }
+      return screenshotFolder;
+   }
+}
@@ -0,0 +1,334 @@
+package utils;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+import com.aventstack.extentreports.ExtentTest;
+
+/**
+ * Decides which step screenshots go in the report, so that a scenario making
+ * several checks on one page does not fill the report with the same image.
+ * The {@code screenshotPolicy} setting is one of the {@link Policy} values.
+ * <p>
+ * A failed step's screenshot is always kept, whatever the policy. Screenshots
+ * a step asks for itself are not subject to the policy. Skipped screenshots
+ * and the bytes they would have taken are counted per scenario and for the
+ * run; for screenshots that were never taken the bytes are estimated from the
+ * average screenshot so far.
+ * <p>
+ * ON_CHANGE screenshots are hashed and compared by the {@link ScreenshotPipeline}
+ * writers, not the test thread. Each screenshot waits for the scenario's
+ * previous screenshot of the same segment (a browser without full page
+ * screenshots takes one per screen) to be hashed, so the comparisons stay in
+ * step order whichever writer makes them.
+ */
+public class ScreenshotPolicy {
+
+   /**
+    * Constructor required for Sonar
+    */
+   private ScreenshotPolicy() {
+      throw new IllegalStateException("Utility class");
+   }
+
+   /**
+    * Which step screenshots are kept
+    */
+   public enum Policy {
+      /** Every step */
+      ALWAYS,
+      /** Only failed steps, no screenshot is taken for the others */
+      FAILURE_ONLY,
+      /**
+       * Steps whose page looks different from the scenario's previous screenshot,
+       * compared by a difference hash of a small grey thumbnail
+       */
+      ON_CHANGE,
+      /** The first step and every screenshotEveryNth step after it */
+      EVERY_NTH
+   }
+
+   /**
+    * A scenario, written by its test thread and the screenshot writers
+    */
+   private static final class ScenarioState {
+      private int steps;
+      private int segment;
+      /** The hash of the scenario's previous screenshot, by segment of the step */
+      private final Map<Integer, CompletableFuture<long[]>> lastHashes = new HashMap<>();
+      /** Completed once each ON_CHANGE screenshot has been compared */
+      private final List<CompletableFuture<Void>> comparisons = new ArrayList<>();
+      private final AtomicLong skipped = new AtomicLong();
+      private final AtomicLong bytesSaved = new AtomicLong();
+   }
+
+   /**
+    * A step screenshot that has been taken, to be kept or skipped by the
+    * screenshot writer that writes it
+    */
+   public static final class Check {
+      private final ScenarioState state;
+      private final boolean failed;
+      /** The scenario's previous hash for the segment, null if not ON_CHANGE or the first */
+      private final CompletableFuture<long[]> previous;
+      private final CompletableFuture<long[]> hash;
+      private final CompletableFuture<Void> compared;
+
+      private Check(ScenarioState state, boolean failed, CompletableFuture<long[]> previous,
+            CompletableFuture<long[]> hash, CompletableFuture<Void> compared) {
+         this.state = state;
+         this.failed = failed;
+         this.previous = previous;
+         this.hash = hash;
+         this.compared = compared;
+      }
+
+      /**
+       * Decides whether the screenshot goes in the report. With the ON_CHANGE
+       * policy a screenshot that looks the same as the scenario's previous one of
+       * the same segment is skipped.
+       *
+       * @param image the image as taken
+       * @return true to attach the screenshot
+       */
+      boolean isChanged(byte[] image) {
+         if (hash == null) {
+            kept.incrementAndGet();
+            return true;
+         }
+         try {
+            long[] own = null;
+            try {
+               own = hash(image);
+            } finally {
+               hash.complete(own);
+            }
+            if (previous != null && Arrays.equals(own, previous.join()) && !failed) {
+               skip(state, image.length);
+               unchanged.incrementAndGet();
+               return false;
+            }
+            kept.incrementAndGet();
+            return true;
+         } finally {
+            compared.complete(null);
+         }
+      }
+   }
+
+   /** The thumbnail the hash compares neighbouring cells of, one more column than compared */
+   private static final int HASH_WIDTH = 17;
+   private static final int HASH_HEIGHT = 16;
+   /** Long pages are decoded subsampled to about this many pixels, so hashing stays quick */
+   private static final int DECODE_SIZE = 1024;
+
+   private static final ThreadLocal<ScenarioState> scenario = ThreadLocal.withInitial(ScenarioState::new);
+   private static final AtomicLong kept = new AtomicLong();
+   private static final AtomicLong notTaken = new AtomicLong();
+   private static final AtomicLong unchanged = new AtomicLong();
+   private static final AtomicLong bytesSaved = new AtomicLong();
+   private static final AtomicLong hashes = new AtomicLong();
+   private static final AtomicLong hashNanos = new AtomicLong();
+
+   /**
+    * Decides, before it is taken, whether a step's screenshot is wanted. Called
+    * once for each step.
+    *
+    * @param failed whether the step failed
+    * @return true to take the screenshot
+    */
+   public static boolean shouldCapture(boolean failed) {
+      ScenarioState state = scenario.get();
+      state.steps++;
+      if (state.segment > 0) {
+         // Segments past the end of the previous screenshot are not compared
+         int segments = state.segment;
+         state.lastHashes.keySet().removeIf(segment -> segment >= segments);
+         state.segment = 0;
+      }
+      boolean capture = failed || switch (getPolicy()) {
+      case FAILURE_ONLY -> false;
+      case EVERY_NTH -> (state.steps - 1) % Math.max(1, BaseTestConfiguration.getScreenshotEveryNth()) == 0;
+      default -> true;
+      };
+      if (!capture) {
+         skip(state, PageScreenshot.getAverageBytes());
+         notTaken.incrementAndGet();
+      }
+      return capture;
+   }
+
+   /**
+    * Prepares the check of a step screenshot that has just been taken, see
+    * {@link Check#isChanged(byte[])}. Called on the test thread for each
+    * screenshot (segment) of the step, in order.
+    *
+    * @param failed whether the step failed
+    * @return the check for the screenshot writer
+    */
+   public static Check check(boolean failed) {
+      ScenarioState state = scenario.get();
+      if (getPolicy() != Policy.ON_CHANGE) {
+         return new Check(state, failed, null, null, null);
+      }
+      CompletableFuture<long[]> hash = new CompletableFuture<>();
+      CompletableFuture<Void> compared = new CompletableFuture<>();
+      state.comparisons.add(compared);
+      return new Check(state, failed, state.lastHashes.put(state.segment++, hash), hash, compared);
+   }
+
+   /**
+    * Resets the current thread's scenario and adds the screenshots it skipped to
+    * its report node, once its screenshots have all been compared
+    *
+    * @param test the scenario's report node, or null
+    */
+   public static void finishScenario(ExtentTest test) {
+      ScenarioState state = scenario.get();
+      scenario.remove();
+      CompletableFuture.allOf(state.comparisons.toArray(new CompletableFuture<?>[0])).thenRun(() -> {
+         if (state.skipped.get() > 0) {
+            String summary = String.format(
+                  "📸 %d step screenshots skipped by the %s screenshot policy (about %d KB saved)",
+                  state.skipped.get(), getPolicy(), state.bytesSaved.get() / 1024);
+            TestLoggerHolder.getLogger().info(summary);
+            if (test != null) {
+               test.info(summary);
+            }
+         }
+      });
+   }
+
+   /**
+    * Gets a one line summary of the step screenshots kept and skipped over the
+    * run
+    *
+    * @return the summary
+    */
+   public static String getSummary() {
+      long count = hashes.get();
+      return String.format(
+            "Screenshot policy %s: %d step screenshots attached, %d not taken, %d skipped as unchanged, "
+                  + "about %d KB saved (%d hashed, average %d ms)",
+            getPolicy(), kept.get(), notTaken.get(), unchanged.get(), bytesSaved.get() / 1024, count,
+            count == 0 ? 0 : hashNanos.get() / count / 1_000_000);
+   }
+
+   /**
+    * Gets the screenshot policy setting
+    *
+    * @return the policy, ALWAYS if the setting is not a known policy
+    */
+   public static Policy getPolicy() {
+      try {
+         return Policy.valueOf(BaseTestConfiguration.getScreenshotPolicy());
+      } catch (IllegalArgumentException e) {
+         return Policy.ALWAYS;
+      }
+   }
+
+   /**
+    * Counts a skipped screenshot
+    *
+    * @param state the scenario
+    * @param bytes the bytes it would have taken
+    */
+   private static void skip(ScenarioState state, long bytes) {
+      state.skipped.incrementAndGet();
+      state.bytesSaved.addAndGet(bytes);
+      bytesSaved.addAndGet(bytes);
+   }
+
+   /**
+    * Gets the difference hash (dHash) of an image: each bit says whether a cell
+    * of a grey thumbnail is brighter than the cell to its right, so the hash
+    * stays the same when the encoding changes but not when the layout does.
+    * Images Java cannot read (WEBP) are hashed by their bytes instead.
+    *
+    * @param image the image
+    * @return the hash
+    */
+   static long[] hash(byte[] image) {
+      long start = System.nanoTime();
+      try {
+         double[][] grey = thumbnail(image);
+         if (grey == null) {
+            return new long[] { Arrays.hashCode(image), image.length };
+         }
+         long[] bits = new long[(HASH_HEIGHT * (HASH_WIDTH - 1) + 63) / 64];
+         for (int y = 0; y < HASH_HEIGHT; y++) {
+            for (int x = 0; x < HASH_WIDTH - 1; x++) {
+               if (grey[y][x] > grey[y][x + 1]) {
+                  int bit = y * (HASH_WIDTH - 1) + x;
+                  bits[bit / 64] |= 1L << (bit % 64);
+               }
+            }
+         }
+         return bits;
+      } finally {
+         hashes.incrementAndGet();
+         hashNanos.addAndGet(System.nanoTime() - start);
+      }
+   }
+
+   /**
+    * Shrinks an image to the hash thumbnail by averaging the brightness of the
+    * pixels in each cell
+    *
+    * @param image the image
+    * @return the brightness of each cell, by row, or null if the image cannot be
+    *         read
+    */
+   private static double[][] thumbnail(byte[] image) {
+      try (ImageInputStream in = ImageIO.createImageInputStream(new ByteArrayInputStream(image))) {
+         Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+         if (!readers.hasNext()) {
+            return null;
+         }
+         ImageReader reader = readers.next();
+         try {
+            reader.setInput(in, true, true);
+            int subsampling = Math.max(1, Math.max(reader.getWidth(0), reader.getHeight(0)) / DECODE_SIZE);
+            ImageReadParam param = reader.getDefaultReadParam();
+            param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+            BufferedImage decoded = reader.read(0, param);
+
+            double[][] grey = new double[HASH_HEIGHT][HASH_WIDTH];
+            int[][] pixels = new int[HASH_HEIGHT][HASH_WIDTH];
+            for (int y = 0; y < decoded.getHeight(); y++) {
+               int row = y * HASH_HEIGHT / decoded.getHeight();
+               for (int x = 0; x < decoded.getWidth(); x++) {
+                  int column = x * HASH_WIDTH / decoded.getWidth();
+                  int rgb = decoded.getRGB(x, y);
+                  grey[row][column] += 0.299 * (rgb >> 16 & 0xff) + 0.587 * (rgb >> 8 & 0xff) + 0.114 * (rgb & 0xff);
+                  pixels[row][column]++;
+               }
+            }
+            for (int y = 0; y < HASH_HEIGHT; y++) {
+               for (int x = 0; x < HASH_WIDTH; x++) {
+                  grey[y][x] /= Math.max(1, pixels[y][x]);
+               }
+            }
+            return grey;
+         } finally {
+            reader.dispose();
+         }
+      } catch (IOException e) {
+         return null;
+      }
+   }
+}
@@ -0,0 +1,246 @@
+package utils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.openqa.selenium.InvalidElementStateException;
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.NotFoundException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.http.ClientConfig;
+import org.openqa.selenium.remote.http.Filter;
+
+/**
+ * Tracks whether a browser session can be trusted without asking the browser.
+ * <p>
+ * {@link DriverManager#getCurrentDriver()} only sends a liveness probe when the
+ * session has been marked suspect (a page object action or step failed) or
+ * when the last successful probe is older than
+ * {@link BaseTestConfiguration#getSessionHealthCheckTtlSeconds()}.
+ * <p>
+ * To measure the saving, the browsers are created with {@link #getClientConfig()},
+ * which counts every command sent to each session. The commands of each step
+ * that uses the browser are added up, along with what they would have been
+ * with a probe on every lookup, as before the tracker.
+ */
+public class SessionHealthTracker {
+
+   /**
+    * Constructor required for Sonar
+    */
+   private SessionHealthTracker() {
+      throw new IllegalStateException("Utility class");
+   }
+
+   /** Time the session was last known to be healthy, or 0 once suspect */
+   private static final Map<RemoteWebDriver, Long> lastVerified = new ConcurrentHashMap<>();
+
+   /**
+    * The session commands at the start of the current thread's step, and its
+    * lookups and probes
+    */
+   private static final class StepCount {
+      private String sessionId;
+      private long startCommands;
+      private long lookups;
+      private long probes;
+   }
+
+   private static final ThreadLocal<StepCount> stepCount = ThreadLocal.withInitial(StepCount::new);
+   /** Commands sent to each session, by session id */
+   private static final Map<String, AtomicLong> sessionCommands = new ConcurrentHashMap<>();
+   private static final Pattern SESSION_PATH = Pattern.compile("/session/([^/]+)");
+
+   /**
+    * Counts each command sent to a session. The HTTP client sends commands from
+    * its own threads, so they are counted by the session in the request path.
+    */
+   private static final Filter COMMAND_COUNTER = next -> request -> {
+      Matcher session = SESSION_PATH.matcher(request.getUri());
+      if (session.find()) {
+         sessionCommands.computeIfAbsent(session.group(1), id -> new AtomicLong()).incrementAndGet();
+      }
+      return next.execute(request);
+   };
+
+   private static final AtomicLong lookups = new AtomicLong();
+   private static final AtomicLong probes = new AtomicLong();
+   private static final AtomicLong suspects = new AtomicLong();
+   private static final AtomicLong steps = new AtomicLong();
+   private static final AtomicLong stepCommands = new AtomicLong();
+   private static final AtomicLong stepCommandsWithProbes = new AtomicLong();
+
+   /**
+    * Gets the client configuration browsers are created with, which counts the
+    * commands sent to them
+    *
+    * @return the client configuration
+    */
+   public static ClientConfig getClientConfig() {
+      return ClientConfig.defaultConfig().withFilter(COMMAND_COUNTER);
+   }
+
+   /**
+    * Starts counting the current thread's step
+    *
+    * @param driver the thread's session, or null if it has none yet
+    */
+   public static void startStep(RemoteWebDriver driver) {
+      StepCount step = new StepCount();
+      step.sessionId = getSessionId(driver);
+      step.startCommands = getCommands(step.sessionId);
+      stepCount.set(step);
+   }
+
+   /**
+    * Adds up the current thread's step, if it sent any command to the browser
+    *
+    * @param driver the thread's session, or null if it has none
+    */
+   public static void finishStep(RemoteWebDriver driver) {
+      StepCount step = stepCount.get();
+      stepCount.remove();
+      String sessionId = getSessionId(driver);
+      // A session created during the step has sent all of its commands in it
+      long commands = getCommands(sessionId) - (sessionId != null && sessionId.equals(step.sessionId)
+            ? step.startCommands : 0);
+      if (commands > 0) {
+         steps.incrementAndGet();
+         stepCommands.addAndGet(commands);
+         // Before the tracker every lookup sent a probe, and none was sent otherwise
+         stepCommandsWithProbes.addAndGet(commands - step.probes + step.lookups);
+      }
+   }
+
+   /**
+    * Records a driver lookup and decides whether the session needs a liveness
+    * probe
+    *
+    * @param driver the current session
+    * @return true if the session must be probed before it is handed out
+    */
+   public static boolean needsProbe(RemoteWebDriver driver) {
+      lookups.incrementAndGet();
+      stepCount.get().lookups++;
+      Long verified = lastVerified.get(driver);
+      if (verified == null) {
+         // First lookup of a session that has just been created or leased
+         markHealthy(driver);
+         return false;
+      }
+      if (verified == 0) {
+         return true;
+      }
+      long ttlMillis = BaseTestConfiguration.getSessionHealthCheckTtlSeconds() * 1000L;
+      return ttlMillis > 0 && System.currentTimeMillis() - verified > ttlMillis;
+   }
+
+   /**
+    * Probes the session with a single command
+    *
+    * @param driver the session to probe
+    * @return true if the session responded
+    */
+   public static boolean probe(RemoteWebDriver driver) {
+      probes.incrementAndGet();
+      stepCount.get().probes++;
+      try {
+         driver.getWindowHandle();
+         markHealthy(driver);
+         return true;
+      } catch (Exception e) {
+         return false;
+      }
+   }
+
+   /**
+    * Records that the session has just responded successfully
+    *
+    * @param driver the healthy session
+    */
+   public static void markHealthy(RemoteWebDriver driver) {
+      lastVerified.put(driver, System.currentTimeMillis());
+   }
+
+   /**
+    * Marks a session so that it is probed on the next lookup
+    *
+    * @param driver the session that saw a failure
+    */
+   public static void markSuspect(RemoteWebDriver driver) {
+      if (driver != null && lastVerified.containsKey(driver)) {
+         lastVerified.put(driver, 0L);
+         suspects.incrementAndGet();
+      }
+   }
+
+   /**
+    * Stops tracking a session once it has been closed or returned to the pool
+    *
+    * @param driver the session to forget
+    */
+   public static void forget(RemoteWebDriver driver) {
+      if (driver != null) {
+         lastVerified.remove(driver);
+      }
+   }
+
+   /**
+    * Gets the commands sent to a session so far
+    *
+    * @param sessionId the session id, or null
+    * @return the number of commands
+    */
+   private static long getCommands(String sessionId) {
+      AtomicLong commands = sessionId == null ? null : sessionCommands.get(sessionId);
+      return commands == null ? 0 : commands.get();
+   }
+
+   /**
+    * Gets the id of a session
+    *
+    * @param driver the session, or null
+    * @return the session id, or null if there is no session
+    */
+   private static String getSessionId(RemoteWebDriver driver) {
+      return driver == null || driver.getSessionId() == null ? null : driver.getSessionId().toString();
+   }
+
+   /**
+    * Checks whether a failed browser command may mean the session itself is
+    * broken, rather than being one of the expected element lookup, state and
+    * timing failures. Page object actions that fail this way mark the session
+    * suspect (see {@link RetryPolicy}), so a failure a step handles itself is
+    * still followed by a probe.
+    *
+    * @param e the failure
+    * @return true if the session should be probed before it is used again
+    */
+   public static boolean isSessionFailure(RuntimeException e) {
+      return e instanceof WebDriverException && !(e instanceof NotFoundException || e instanceof TimeoutException
+            || e instanceof StaleElementReferenceException || e instanceof InvalidElementStateException
+            || e instanceof JavascriptException);
+   }
+
+   /**
+    * Gets a one line summary of lookups against the probes actually sent, and
+    * of the browser commands per step with the tracker and as they would have
+    * been with a probe on every lookup
+    *
+    * @return the summary
+    */
+   public static String getSummary() {
+      long count = steps.get();
+      return String.format(
+            "Driver lookups %d, liveness probes %d (one per lookup without the tracker), suspect marks %d, "
+                  + "WebDriver commands per step %.1f (%.1f with a probe per lookup) over %d steps",
+            lookups.get(), probes.get(), suspects.get(), count == 0 ? 0.0 : (double) stepCommands.get() / count,
+            count == 0 ? 0.0 : (double) stepCommandsWithProbes.get() / count, count);
+   }
+}
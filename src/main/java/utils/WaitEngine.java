@@ -0,0 +1,166 @@
+package utils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.support.ui.Sleeper;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+/**
+ * Hands out the explicit waits used by the page objects.
+ * <p>
+ * Each thread keeps one wait per {@link Timeout} for its current browser, so a
+ * page object action reuses a wait rather than building a new one, and the
+ * timeouts come from the run settings rather than literals in the page
+ * objects. Waits poll adaptively: the first polls are
+ * {@code waitPollInitialMillis} apart, so a condition that becomes true quickly
+ * is seen quickly, then the gap doubles up to {@code waitPollMaxMillis} so that
+ * long waits do not flood the browser with commands.
+ */
+public class WaitEngine {
+
+   /**
+    * Constructor required for Sonar
+    */
+   private WaitEngine() {
+      throw new IllegalStateException("Utility class");
+   }
+
+   /**
+    * The wait lengths used by the page objects
+    */
+   public enum Timeout {
+      /** Element actions and page changes (waitTimeoutSeconds) */
+      DEFAULT,
+      /** Menus and uploads (waitMediumTimeoutSeconds) */
+      MEDIUM,
+      /** Checks expected to pass quickly (waitShortTimeoutSeconds) */
+      SHORT,
+      /** Checks for something that is usually absent (waitProbeTimeoutMillis) */
+      PROBE;
+
+      /**
+       * Gets the configured length of the wait
+       *
+       * @return the timeout
+       */
+      public Duration getDuration() {
+         return switch (this) {
+            case DEFAULT -> Duration.ofSeconds(BaseTestConfiguration.getWaitTimeoutSeconds());
+            case MEDIUM -> Duration.ofSeconds(BaseTestConfiguration.getWaitMediumTimeoutSeconds());
+            case SHORT -> Duration.ofSeconds(BaseTestConfiguration.getWaitShortTimeoutSeconds());
+            case PROBE -> Duration.ofMillis(BaseTestConfiguration.getWaitProbeTimeoutMillis());
+         };
+      }
+   }
+
+   /**
+    * Sleeps for a gap that starts short and doubles on every poll, whatever
+    * interval the wait asks for
+    */
+   private static final class BackoffSleeper implements Sleeper {
+      private long nextMillis;
+
+      @Override
+      public void sleep(Duration ignored) throws InterruptedException {
+         Thread.sleep(nextMillis);
+         nextMillis = Math.min(nextMillis * 2, BaseTestConfiguration.getWaitPollMaxMillis());
+      }
+
+      /**
+       * Starts the backoff again for a new wait
+       */
+      void reset() {
+         nextMillis = Math.max(1, BaseTestConfiguration.getWaitPollInitialMillis());
+      }
+   }
+
+   /**
+    * A wait that restarts its backoff every time it is used
+    */
+   private static final class AdaptiveWait extends WebDriverWait {
+      private final BackoffSleeper sleeper;
+
+      AdaptiveWait(WebDriver driver, Duration timeout, BackoffSleeper sleeper) {
+         super(driver, timeout, Duration.ofMillis(BaseTestConfiguration.getWaitPollInitialMillis()),
+               Clock.systemDefaultZone(), sleeper);
+         this.sleeper = sleeper;
+      }
+
+      @Override
+      public <V> V until(Function<? super WebDriver, V> isTrue) {
+         sleeper.reset();
+         return super.until(isTrue);
+      }
+   }
+
+   /**
+    * The waits of one thread, valid while the thread keeps the same browser
+    *
+    * @param driver      the browser the waits were built for
+    * @param waits       the waits by length
+    * @param customWaits the waits of a length of their own, see
+    *                    {@link WaitEngine#getWait(Duration)}
+    */
+   private record ThreadWaits(RemoteWebDriver driver, Map<Timeout, WebDriverWait> waits,
+         Map<Duration, WebDriverWait> customWaits) {
+   }
+
+   private static final ThreadLocal<ThreadWaits> threadWaits = new ThreadLocal<>();
+
+   /**
+    * Gets the current thread's wait of the given length for its browser
+    *
+    * @param timeout the length of the wait
+    * @return the wait
+    */
+   public static WebDriverWait getWait(Timeout timeout) {
+      ThreadWaits current = getThreadWaits();
+      return current.waits().computeIfAbsent(timeout,
+            key -> new AdaptiveWait(current.driver(), key.getDuration(), new BackoffSleeper()));
+   }
+
+   /**
+    * Gets the current thread's wait of a fixed length for its browser, for the
+    * odd check that needs a length none of the {@link Timeout} settings has
+    *
+    * @param timeout the length of the wait
+    * @return the wait
+    */
+   public static WebDriverWait getWait(Duration timeout) {
+      ThreadWaits current = getThreadWaits();
+      return current.customWaits().computeIfAbsent(timeout,
+            key -> new AdaptiveWait(current.driver(), key, new BackoffSleeper()));
+   }
+
+   /**
+    * Gets the current thread's default length wait for its browser
+    *
+    * @return the wait
+    */
+   public static WebDriverWait getWait() {
+      return getWait(Timeout.DEFAULT);
+   }
+
+   /**
+    * Gets the current thread's waits, built again if the thread's browser has
+    * changed
+    *
+    * @return the waits
+    */
+   private static ThreadWaits getThreadWaits() {
+      RemoteWebDriver driver = DriverManager.getCurrentDriver();
+      ThreadWaits current = threadWaits.get();
+      if (current == null || current.driver() != driver) {
+         current = new ThreadWaits(driver, new EnumMap<>(Timeout.class), new HashMap<>());
+         threadWaits.set(current);
+      }
+      return current;
+   }
+}
@@ -10,7 +10,6 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.poi.openxml4j.exceptions.InvalidOperationException;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.support.ui.WebDriverWait;
 
 import constants.IConstants;
 import listener.ListenerPlugin;
@@ -35,6 +34,8 @@ public class WebTable extends BasePageClass {
    private static final String PAGINATION_PAGE_SIZE = "css::.pagination-pageSize a";
    private static final String RELOAD_LIST = "css::.md-ink-ripple[value='Reload List']";
    private static final String SELECT_PAGE = "css::.pagination-page-select";
+   /** The page select is checked for on every page, so it is only given a moment */
+   private static final Duration NEXT_PAGE_PROBE = Duration.ofMillis(250);
 
    // All Pages Table Strings and Elements
    private List<List<String>> tableData = new ArrayList<>();
@@ -121,7 +122,7 @@ public class WebTable extends BasePageClass {
        * Some pages have a reload list button, wait for this to be clickable before
        * continuing to avoid a stale element exception
        */
-      setWait(new WebDriverWait(getDriver(), Duration.ofMillis(500)));
+      setWait(WaitEngine.getWait(WaitEngine.Timeout.PROBE));
       if (isElementExists(getWait(), RELOAD_LIST)) {
          waitForElementToBeClickable(RELOAD_LIST);
       }
@@ -138,7 +139,7 @@ public class WebTable extends BasePageClass {
          // ALL will only work with tableData as this is just strings not elements.
          ListenerPlugin.addScreenshotToReport("Intial Table View", "");
          // While the page is full...
-         setWait(new WebDriverWait(getDriver(), Duration.ofMillis(250)));
+         setWait(WaitEngine.getWait(NEXT_PAGE_PROBE));
 
          if (isElementExists(getWait(), SELECT_PAGE)) {
             getAllPageData(row);